@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+
+/**
+ * Package private class used by Transport to send messages
+ * asynchronously. <p>
+ *
+ * Messages are sent one at a time, in the order in which they were
+ * submitted, by calling <code>sendMessage</code> on the Transport from
+ * a SerialExecutor that uses the Executor in the
+ * <code>mail.transport.async.executor</code> session property.  At most <code>mail.transport.async.limit</code>
+ * sends may be outstanding; submitting more blocks the caller until
+ * an earlier send completes.
+ */
+final class AsyncSender {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    // shared by all Transports that don't configure an Executor
+    private static final Executor DEFAULT_EXECUTOR =
+            MailExecutors.newExecutor("Jakarta-Mail-Send");
+
+    private final Transport transport;
+    private final SerialExecutor executor;
+    private final Semaphore permits;
+
+    AsyncSender(Transport transport, Executor executor, int limit) {
+        this.transport = transport;
+        this.executor = new SerialExecutor(executor);
+        this.permits = new Semaphore(limit);
+    }
+
+    /**
+     * Create the AsyncSender configured by the session properties.
+     */
+    static AsyncSender create(Transport transport, Session session) {
+        Object e = session.getProperties().get("mail.transport.async.executor");
+        Executor executor = e instanceof Executor ?
+                (Executor) e : DEFAULT_EXECUTOR;
+        int limit = DEFAULT_LIMIT;
+        String s = session.getProperty("mail.transport.async.limit");
+        if (s != null) {
+            try {
+                limit = Math.max(1, Integer.parseInt(s.trim()));
+            } catch (NumberFormatException nfex) {
+                new MailLogger(AsyncSender.class, "DEBUG", session.getDebug(),
+                        session.getDebugOut())
+                        .log(Level.CONFIG, "bad mail.transport.async.limit", nfex);
+            }
+        }
+        return new AsyncSender(transport, executor, limit);
+    }
+
+    /**
+     * Queue the message to be sent after all previously queued messages.
+     */
+    CompletionStage<SendResult> send(Message msg, Address[] addresses) {
+        // the caller may reuse the array before the message is sent
+        Address[] a = addresses.clone();
+        try {
+            permits.acquire();
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(iex);
+        }
+        CompletableFuture<SendResult> result = new CompletableFuture<>();
+        try {
+            // run after the previous send, whatever its outcome
+            executor.execute(() -> {
+                try {
+                    result.complete(send0(msg, a));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException rex) {
+            permits.release();
+            throw rex;
+        }
+        result.whenComplete((r, t) -> permits.release());
+        return result.minimalCompletionStage();
+    }
+
+    private SendResult send0(Message msg, Address[] addresses) {
+        try {
+            transport.sendMessage(msg, addresses);
+            return new SendResult(msg, addresses, null, null, null);
+        } catch (SendFailedException sfex) {
+            return new SendResult(msg, sfex.getValidSentAddresses(),
+                    sfex.getValidUnsentAddresses(),
+                    sfex.getInvalidAddresses(), sfex);
+        } catch (MessagingException mex) {
+            return new SendResult(msg, null, null, null, mex);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2025 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -54,7 +54,7 @@ public abstract class BodyPart implements Part {
      * @since JavaMail 2.1
      */
     @Deprecated(forRemoval = true, since = "2.2.0")
-    protected final StreamProvider streamProvider = new DeprecatedStreamProviderWrapper(this.getClass(), StreamProvider.provider());
+    protected final StreamProvider streamProvider = new DeprecatedStreamProviderWrapper(this.getClass());
 
     /**
      * Creates a default {@code BodyPart}.
@@ -96,18 +96,27 @@ public abstract class BodyPart implements Part {
 
     /**
      * Wrapper around StreamProvider that logs a deprecation warning
-     * whenever its methods are used.
+     * whenever its methods are used.  The delegate is resolved on first
+     * use so that creating a part does not look up a StreamProvider.
      */
     @Deprecated
     static final class DeprecatedStreamProviderWrapper implements StreamProvider {
 
         private static final Logger LOGGER = Logger.getLogger(DeprecatedStreamProviderWrapper.class.getName());
-        private final StreamProvider delegate;
+        private volatile StreamProvider delegate;
         private final Class<?> owner;
 
-        public DeprecatedStreamProviderWrapper(Class<?> owner, StreamProvider delegate) {
+        public DeprecatedStreamProviderWrapper(Class<?> owner) {
             this.owner = owner;
-            this.delegate = delegate;
+        }
+
+        private StreamProvider delegate() {
+            StreamProvider d = delegate;
+            if (d == null) {
+                d = StreamProvider.provider();
+                delegate = d;
+            }
+            return d;
         }
 
         private void warn() {
@@ -120,85 +129,85 @@ public abstract class BodyPart implements Part {
         @Override
         public InputStream inputBase64(InputStream in) {
             warn();
-            return delegate.inputBase64(in);
+            return delegate().inputBase64(in);
         }
 
         @Override
         public OutputStream outputBase64(OutputStream out) {
             warn();
-            return delegate.outputBase64(out);
+            return delegate().outputBase64(out);
         }
 
         @Override
         public InputStream inputBinary(InputStream in) {
             warn();
-            return delegate.inputBinary(in);
+            return delegate().inputBinary(in);
         }
 
         @Override
         public OutputStream outputBinary(OutputStream out) {
             warn();
-            return delegate.outputBinary(out);
+            return delegate().outputBinary(out);
         }
 
         @Override
         public OutputStream outputB(OutputStream out) {
             warn();
-            return delegate.outputB(out);
+            return delegate().outputB(out);
         }
 
         @Override
         public InputStream inputQ(InputStream in) {
             warn();
-            return delegate.inputQ(in);
+            return delegate().inputQ(in);
         }
 
         @Override
         public OutputStream outputQ(OutputStream out, boolean encodingWord) {
             warn();
-            return delegate.outputQ(out, encodingWord);
+            return delegate().outputQ(out, encodingWord);
         }
 
         @Override
         public LineInputStream inputLineStream(InputStream in, boolean allowutf8) {
             warn();
-            return delegate.inputLineStream(in, allowutf8);
+            return delegate().inputLineStream(in, allowutf8);
         }
 
         @Override
         public LineOutputStream outputLineStream(OutputStream out, boolean allowutf8) {
             warn();
-            return delegate.outputLineStream(out, allowutf8);
+            return delegate().outputLineStream(out, allowutf8);
         }
 
         @Override
         public InputStream inputQP(InputStream in) {
             warn();
-            return delegate.inputQP(in);
+            return delegate().inputQP(in);
         }
 
         @Override
         public OutputStream outputQP(OutputStream out) {
             warn();
-            return delegate.outputQP(out);
+            return delegate().outputQP(out);
         }
 
         @Override
         public InputStream inputSharedByteArray(byte[] buff) {
             warn();
-            return delegate.inputSharedByteArray(buff);
+            return delegate().inputSharedByteArray(buff);
         }
 
         @Override
         public InputStream inputUU(InputStream in) {
             warn();
-            return delegate.inputUU(in);
+            return delegate().inputUU(in);
         }
 
         @Override
         public OutputStream outputUU(OutputStream out, String filename) {
             warn();
-            return delegate.outputUU(out, filename);
+            return delegate().outputUU(out, filename);
         }
 
     }
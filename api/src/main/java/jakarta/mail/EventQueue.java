@@ -19,6 +19,7 @@ package jakarta.mail;
 import jakarta.mail.event.MailEvent;
 
 import java.util.EventListener;
+import java.util.Properties;
 import java.util.Vector;
 import java.util.WeakHashMap;
 import java.util.concurrent.BlockingQueue;
@@ -28,7 +29,12 @@ import java.util.concurrent.LinkedBlockingQueue;
 /**
  * Package private class used by Store & Folder to dispatch events.
  * This class implements an event queue, and a dispatcher thread that
- * dequeues and dispatches events from the queue.
+ * dequeues and dispatches events from the queue. <p>
+ *
+ * If the <code>mail.event.dispatch</code> property is "shared", the
+ * queue doesn't have a dispatcher thread of its own.  Instead, events are
+ * dispatched by a SerialExecutor, one at a time and in order, using threads
+ * of the Executor only while there are events to dispatch.
  *
  * @author Bill Shannon
  */
@@ -37,6 +43,12 @@ class EventQueue implements Runnable {
     private volatile BlockingQueue<QueueElement> q;
     private Executor executor;
 
+    // used instead of q in shared mode
+    private final SerialExecutor serial;
+
+    // used in shared mode if there's no mail.event.executor
+    private static Executor sharedExecutor;
+
     private static WeakHashMap<ClassLoader, EventQueue> appq;
 
     /**
@@ -75,13 +87,52 @@ class EventQueue implements Runnable {
      */
     EventQueue(Executor ex) {
         this.executor = ex;
+        this.serial = null;
+    }
+
+    /**
+     * Construct a shared mode EventQueue that dispatches events using
+     * the specified SerialExecutor.
+     */
+    private EventQueue(SerialExecutor serial) {
+        this.serial = serial;
+    }
+
+    /**
+     * Create an EventQueue configured by the <code>mail.event.dispatch</code>
+     * and <code>mail.event.executor</code> properties.
+     */
+    static EventQueue create(Properties props) {
+        Executor ex = (Executor) props.get("mail.event.executor");
+        if (!"shared".equalsIgnoreCase(props.getProperty("mail.event.dispatch")))
+            return new EventQueue(ex);
+        return new EventQueue(new SerialExecutor(
+                ex != null ? ex : getSharedExecutor()));
+    }
+
+    private static synchronized Executor getSharedExecutor() {
+        if (sharedExecutor == null)
+            sharedExecutor = MailExecutors.newExecutor("Jakarta-Mail-EventQueue");
+        return sharedExecutor;
     }
 
     /**
      * Enqueue an event.
      */
-    synchronized void enqueue(MailEvent event,
-                              Vector<? extends EventListener> vector) {
+    void enqueue(MailEvent event, Vector<? extends EventListener> vector) {
+        if (serial == null) {
+            enqueue0(event, vector);
+            return;
+        }
+        QueueElement qe = new QueueElement(event, vector);
+        serial.execute(() -> dispatch(qe));
+    }
+
+    /**
+     * Enqueue an event, starting the dispatcher thread if needed.
+     */
+    private synchronized void enqueue0(MailEvent event,
+                                       Vector<? extends EventListener> vector) {
         // if this is the first event, create the queue and start the event task
         if (q == null) {
             q = new LinkedBlockingQueue<>();
@@ -98,6 +149,7 @@ class EventQueue implements Runnable {
 
     /**
      * Terminate the task running the queue, but only if there is a queue.
+     * In shared mode there is no such task.
      */
     synchronized void terminateQueue() {
         if (q != null) {
@@ -112,18 +164,32 @@ class EventQueue implements Runnable {
      * Create (if necessary) an application-scoped event queue.
      * Application scoping is based on the thread's context class loader.
      */
-    static synchronized EventQueue getApplicationEventQueue(Executor ex) {
+    static synchronized EventQueue getApplicationEventQueue(Properties props) {
         ClassLoader cl = Session.getContextClassLoader();
         if (appq == null)
             appq = new WeakHashMap<>();
         EventQueue q = appq.get(cl);
         if (q == null) {
-            q = new EventQueue(ex);
+            q = create(props);
             appq.put(cl, q);
         }
         return q;
     }
 
+    /**
+     * Dispatch an event in shared mode.
+     */
+    private static void dispatch(QueueElement qe) {
+        MailEvent e = qe.event;
+        Vector<? extends EventListener> v = qe.vector;
+        for (int i = 0; i < v.size(); i++)
+            try {
+                e.dispatch(v.elementAt(i));
+            } catch (Throwable t) {
+                // ignore anything thrown by the listener
+            }
+    }
+
     /**
      * Pull events off the queue and dispatch them.
      */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2024 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -30,8 +30,12 @@ import jakarta.mail.search.SearchTerm;
 import java.util.ArrayList;
 import java.util.EventListener;
 import java.util.List;
+import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Folder is an abstract class that represents a folder for mail
@@ -133,16 +137,14 @@ public abstract class Folder implements AutoCloseable {
         Session session = store.getSession();
         String scope =
                 session.getProperties().getProperty("mail.event.scope", "folder");
-        Executor executor =
-                (Executor) session.getProperties().get("mail.event.executor");
         if (scope.equalsIgnoreCase("application"))
-            q = EventQueue.getApplicationEventQueue(executor);
+            q = EventQueue.getApplicationEventQueue(session.getProperties());
         else if (scope.equalsIgnoreCase("session"))
             q = session.getEventQueue();
         else if (scope.equalsIgnoreCase("store"))
             q = store.getEventQueue();
         else // if (scope.equalsIgnoreCase("folder"))
-            q = new EventQueue(executor);
+            q = EventQueue.create(session.getProperties());
     }
 
     /**
@@ -1290,7 +1292,15 @@ public abstract class Folder implements AutoCloseable {
      * search term is too complex or contains user-defined terms that
      * cannot be executed on the server, providers may elect to either
      * throw a SearchException or degenerate to client-side searching by
-     * calling <code>super.search()</code> to invoke this implementation.
+     * calling <code>super.search()</code> to invoke this implementation. <p>
+     *
+     * If the session property <code>mail.search.parallelism</code> is
+     * greater than one, the messages are split into that many contiguous
+     * partitions that are matched concurrently, using the Executor in the
+     * <code>mail.search.executor</code> session property or a pool shared
+     * by all folders. The returned messages are in the same order as in
+     * <code>msgs</code> either way. The search term must then be safe
+     * to use from multiple threads.
      *
      * @param term the search criterion
      * @param msgs the messages to be searched
@@ -1303,6 +1313,10 @@ public abstract class Folder implements AutoCloseable {
      */
     public Message[] search(SearchTerm term, Message[] msgs)
             throws MessagingException {
+        int parallelism = Math.min(getSearchParallelism(), msgs.length);
+        if (parallelism > 1)
+            return parallelSearch(term, msgs, parallelism);
+
         List<Message> matchedMsgs = new ArrayList<>();
 
         // Run thru the given messages
@@ -1317,6 +1331,131 @@ public abstract class Folder implements AutoCloseable {
         return matchedMsgs.toArray(new Message[0]);
     }
 
+    /**
+     * Returns the value of the <code>mail.search.parallelism</code>
+     * session property, or 1 if it is not set or not a number.
+     */
+    private int getSearchParallelism() {
+        Properties props = store.getSession().getProperties();
+        Object value = props.get("mail.search.parallelism");
+        if (value == null)
+            value = props.getProperty("mail.search.parallelism");
+        if (value instanceof Integer)
+            return (Integer) value;
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException nfex) {
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Match the messages in <code>parallelism</code> partitions.
+     * The last partition is matched by the calling thread.  The other
+     * partitions are stopped, and waited for, if the calling thread fails.
+     */
+    private Message[] parallelSearch(SearchTerm term, Message[] msgs,
+                                     int parallelism)
+            throws MessagingException {
+        Object e = store.getSession().getProperties()
+                .get("mail.search.executor");
+        Executor executor = e instanceof Executor ?
+                (Executor) e : SearchExecutor.executor;
+        boolean[] matched = new boolean[msgs.length];
+        AtomicBoolean stop = new AtomicBoolean();
+
+        List<CompletableFuture<MessagingException>> partitions =
+                new ArrayList<>(parallelism - 1);
+        try {
+            int size = msgs.length / parallelism;
+            int extra = msgs.length % parallelism;
+            int start = 0;
+            for (int i = 0; i < parallelism - 1; i++) {
+                final int from = start;
+                final int to = start + size + (i < extra ? 1 : 0);
+                partitions.add(CompletableFuture.supplyAsync(
+                        () -> match(term, msgs, matched, from, to, stop),
+                        executor));
+                start = to;
+            }
+            MessagingException last = match(term, msgs, matched, start,
+                    msgs.length, stop);
+
+            // report failures in message order, after all partitions are done
+            MessagingException failure = null;
+            RuntimeException unchecked = null;
+            for (CompletableFuture<MessagingException> partition : partitions) {
+                try {
+                    MessagingException mex = partition.join();
+                    if (failure == null && unchecked == null)
+                        failure = mex;
+                } catch (CompletionException cex) {
+                    if (failure == null && unchecked == null) {
+                        Throwable cause = cex.getCause();
+                        if (cause instanceof Error)
+                            throw (Error) cause;
+                        unchecked = cause instanceof RuntimeException ?
+                                (RuntimeException) cause : cex;
+                    }
+                }
+            }
+            if (unchecked != null)
+                throw unchecked;
+            if (failure == null)
+                failure = last;
+            if (failure != null)
+                throw failure;
+        } finally {
+            // don't leave partitions running, e.g. if this thread failed
+            stop.set(true);
+            for (CompletableFuture<MessagingException> partition : partitions) {
+                try {
+                    partition.join();
+                } catch (CompletionException cex) {
+                    // already reported, or superseded by our own failure
+                }
+            }
+        }
+
+        List<Message> matchedMsgs = new ArrayList<>();
+        for (int i = 0; i < msgs.length; i++) {
+            if (matched[i])
+                matchedMsgs.add(msgs[i]);
+        }
+        return matchedMsgs.toArray(new Message[0]);
+    }
+
+    // used by parallelSearch if there's no mail.search.executor
+    private static final class SearchExecutor {
+        static final Executor executor =
+                MailExecutors.newExecutor("Jakarta-Mail-Search");
+    }
+
+    /**
+     * Match the messages from index <code>from</code> (inclusive) to
+     * <code>to</code> (exclusive), recording the result in
+     * <code>matched</code>, until <code>stop</code> is set.
+     * Removed messages never match.
+     *
+     * @return the exception that ended the partition, or null
+     */
+    private static MessagingException match(SearchTerm term, Message[] msgs,
+                                            boolean[] matched,
+                                            int from, int to,
+                                            AtomicBoolean stop) {
+        for (int i = from; i < to && !stop.get(); i++) {
+            try {
+                matched[i] = msgs[i].match(term);
+            } catch (MessageRemovedException mrex) {
+            } catch (MessagingException mex) {
+                return mex;
+            }
+        }
+        return null;
+    }
+
     /*
      * The set of listeners are stored in Vectors appropriate to their
      * type.  We mark all listener Vectors as "volatile" because, while
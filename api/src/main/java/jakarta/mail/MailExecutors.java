@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Package private class that creates the Executors used by default
+ * for asynchronous work. <p>
+ *
+ * On JDKs that support virtual threads, each task is run in a new
+ * virtual thread.  Otherwise, tasks are run by a pool of at most
+ * MAX_THREADS daemon threads, which are created as needed and end after
+ * being idle for a minute; further tasks wait in a queue.
+ */
+final class MailExecutors {
+
+    // Thread.ofVirtual().factory(), or null if not supported
+    private static final ThreadFactory VIRTUAL =
+            virtualThreadFactory();
+
+    // the most platform threads of each Executor
+    static final int MAX_THREADS =
+            Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+    private MailExecutors() {
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            // the build targets an older release, so look it up reflectively
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Method factory = ofVirtual.getReturnType().getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Return a new Executor that runs each task in a virtual thread,
+     * or in a pooled daemon thread with the given name.
+     *
+     * @param name the name of platform threads
+     * @return the Executor
+     */
+    static Executor newExecutor(String name) {
+        if (VIRTUAL != null)
+            return task -> VIRTUAL.newThread(task).start();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_THREADS,
+                MAX_THREADS, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                task -> {
+                    Thread t = new Thread(task, name);
+                    t.setDaemon(true);  // not a user thread
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2025 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -73,7 +73,7 @@ public abstract class Multipart {
      * @since JavaMail 2.1
      */
     @Deprecated(forRemoval = true, since = "2.2.0")
-    protected final StreamProvider streamProvider = new DeprecatedStreamProviderWrapper(this.getClass(), StreamProvider.provider());
+    protected final StreamProvider streamProvider = new DeprecatedStreamProviderWrapper(this.getClass());
 
     /**
      * Default constructor. An empty Multipart object is created.
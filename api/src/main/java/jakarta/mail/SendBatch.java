@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Package private class used by Transport to send a batch of messages.
+ * The recipients of all messages are grouped by Session and transport
+ * protocol, and each group is sent over a single connected Transport.
+ * The outcome of every message is collected in a {@link SendResult}.
+ */
+final class SendBatch {
+
+    private final List<Outcome> outcomes = new ArrayList<>();
+    private final Map<List<Object>, Group> groups = new LinkedHashMap<>();
+
+    /**
+     * Prepare the messages for sending and group their recipients.
+     *
+     * @param msgs the messages to send
+     */
+    SendBatch(Collection<? extends Message> msgs) {
+        for (Message msg : msgs) {
+            Outcome outcome = new Outcome(msg);
+            outcomes.add(outcome);
+            try {
+                msg.saveChanges();
+                Address[] addresses = msg.getAllRecipients();
+                if (addresses == null || addresses.length == 0)
+                    throw new SendFailedException("No recipient addresses");
+
+                Session s = (msg.session != null) ? msg.session :
+                        Session.getDefaultInstance(System.getProperties(), null);
+
+                // addresses indexed by address type
+                Map<String, List<Address>> types = new LinkedHashMap<>();
+                for (Address a : addresses)
+                    types.computeIfAbsent(a.getType(), k -> new ArrayList<>())
+                            .add(a);
+                // find the protocol of each type before queuing anything
+                // (several types may map to the same protocol)
+                Map<String, List<Address>> protocols = new LinkedHashMap<>();
+                for (List<Address> v : types.values())
+                    protocols.computeIfAbsent(s.getTransportProtocol(v.get(0)),
+                            k -> new ArrayList<>()).addAll(v);
+
+                outcome.deliveries = protocols.size();
+                for (Map.Entry<String, List<Address>> e :
+                        protocols.entrySet()) {
+                    groups.computeIfAbsent(Arrays.asList(s, e.getKey()),
+                            k -> new Group(s, e.getKey()))
+                            .deliveries.add(new Delivery(outcome,
+                                    e.getValue().toArray(new Address[0])));
+                }
+            } catch (MessagingException mex) {
+                outcome.failed(mex, null);
+            }
+        }
+    }
+
+    /**
+     * Send all groups, concurrently if an Executor is given.
+     *
+     * @param executor the Executor, or null to send from the calling thread
+     * @return the results in the order of the messages
+     */
+    List<SendResult> send(Executor executor) {
+        if (executor == null) {
+            for (Group g : groups.values())
+                g.send();
+        } else {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (Group g : groups.values())
+                tasks.add(CompletableFuture.runAsync(g::send, executor));
+            RuntimeException unchecked = null;
+            for (CompletableFuture<Void> task : tasks) {
+                try {
+                    task.join();
+                } catch (CompletionException cex) {
+                    Throwable cause = cex.getCause();
+                    if (cause instanceof Error)
+                        throw (Error) cause;
+                    if (unchecked == null)
+                        unchecked = cause instanceof RuntimeException ?
+                                (RuntimeException) cause : cex;
+                }
+            }
+            if (unchecked != null)
+                throw unchecked;
+        }
+
+        List<SendResult> results = new ArrayList<>(outcomes.size());
+        for (Outcome o : outcomes)
+            results.add(o.toResult());
+        return results;
+    }
+
+    /**
+     * The recipients of one message for one protocol.
+     */
+    private static final class Delivery {
+        final Outcome outcome;
+        final Address[] addresses;
+
+        Delivery(Outcome outcome, Address[] addresses) {
+            this.outcome = outcome;
+            this.addresses = addresses;
+        }
+    }
+
+    /**
+     * All deliveries for one Session and protocol.
+     */
+    private static final class Group {
+        final Session session;
+        final String protocol;
+        final List<Delivery> deliveries = new ArrayList<>();
+
+        Group(Session session, String protocol) {
+            this.session = session;
+            this.protocol = protocol;
+        }
+
+        void send() {
+            TransportPool pool = session.getTransportPool();
+            URLName key = pool != null ?
+                    TransportPool.key(protocol, null, null) : null;
+            Transport transport = null;
+            try {
+                for (int i = 0; i < deliveries.size(); i++) {
+                    Delivery d = deliveries.get(i);
+                    if (transport == null) {
+                        try {
+                            transport = connect(pool, key);
+                        } catch (MessagingException mex) {
+                            // can't connect, give up on the rest
+                            for (int j = i; j < deliveries.size(); j++)
+                                deliveries.get(j).outcome.failed(mex, null);
+                            return;
+                        }
+                    }
+                    try {
+                        transport.sendMessage(d.outcome.message, d.addresses);
+                        d.outcome.sent(d.addresses);
+                    } catch (SendFailedException sex) {
+                        d.outcome.failed(sex, sex);
+                    } catch (MessagingException mex) {
+                        d.outcome.failed(mex, null);
+                        // the connection may be broken, start over
+                        closeQuietly(transport);
+                        transport = null;
+                    }
+                }
+                if (transport != null && key != null) {
+                    Transport t = transport;
+                    transport = null;
+                    pool.release(key, t);
+                }
+            } catch (MessagingException mex) {
+                // failure closing a Transport that didn't fit in the pool
+            } finally {
+                if (transport != null)
+                    closeQuietly(transport);
+            }
+        }
+
+        private Transport connect(TransportPool pool, URLName key)
+                throws MessagingException {
+            Transport t = key != null ? pool.take(key) : null;
+            if (t == null) {
+                t = session.getTransport(protocol);
+                try {
+                    t.connect();
+                } catch (MessagingException | RuntimeException ex) {
+                    closeQuietly(t);
+                    throw ex;
+                }
+            }
+            return t;
+        }
+
+        private static void closeQuietly(Transport t) {
+            try {
+                t.close();
+            } catch (MessagingException ignore) {
+            }
+        }
+    }
+
+    /**
+     * The combined outcome of all deliveries of one message.
+     * Deliveries of different groups may complete concurrently.
+     */
+    private static final class Outcome {
+        final Message message;
+        int deliveries;
+        private final List<Address> validSent = new ArrayList<>();
+        private final List<Address> validUnsent = new ArrayList<>();
+        private final List<Address> invalid = new ArrayList<>();
+        private final List<MessagingException> failures = new ArrayList<>();
+
+        Outcome(Message message) {
+            this.message = message;
+        }
+
+        synchronized void sent(Address[] addresses) {
+            Collections.addAll(validSent, addresses);
+        }
+
+        synchronized void failed(MessagingException mex,
+                                 SendFailedException sex) {
+            failures.add(mex);
+            if (sex != null) {
+                addAll(invalid, sex.getInvalidAddresses());
+                addAll(validSent, sex.getValidSentAddresses());
+                addAll(validUnsent, sex.getValidUnsentAddresses());
+            }
+        }
+
+        private static void addAll(List<Address> list, Address[] a) {
+            if (a != null)
+                Collections.addAll(list, a);
+        }
+
+        synchronized SendResult toResult() {
+            MessagingException ex = null;
+            if (deliveries <= 1 && failures.size() == 1) {
+                // just like Transport.send with a single protocol
+                ex = failures.get(0);
+            } else if (!failures.isEmpty() || !invalid.isEmpty() ||
+                    !validUnsent.isEmpty()) {
+                MessagingException chainedEx = null;
+                for (MessagingException mex : failures) {
+                    if (chainedEx == null)
+                        chainedEx = mex;
+                    else
+                        chainedEx.setNextException(mex);
+                }
+                ex = new SendFailedException("Sending failed", chainedEx,
+                        toArray(validSent), toArray(validUnsent),
+                        toArray(invalid));
+            }
+            return new SendResult(message, toArray(validSent),
+                    toArray(validUnsent), toArray(invalid), ex);
+        }
+
+        private static Address[] toArray(List<Address> list) {
+            return list.isEmpty() ? null : list.toArray(new Address[0]);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail;
+
+/**
+ * The outcome of sending one message with
+ * {@link Transport#sendAll(java.util.Collection) Transport.sendAll} or
+ * {@link Transport#sendAsync Transport.sendAsync}. <p>
+ *
+ * The address arrays are the same as those of a
+ * {@link SendFailedException} thrown by {@link Transport#send(Message)}:
+ * each of them is <code>null</code> if there are no such addresses.
+ * If the message was sent to all of its recipients,
+ * {@link #getException getException} returns <code>null</code> and
+ * all recipients are reported as valid sent addresses.
+ *
+ * @see Transport#sendAll(java.util.Collection)
+ * @see Transport#sendAsync
+ * @since JavaMail 2.2
+ */
+public final class SendResult {
+
+    private final Message message;
+    private final Address[] validSent;
+    private final Address[] validUnsent;
+    private final Address[] invalid;
+    private final MessagingException exception;
+
+    SendResult(Message message, Address[] validSent, Address[] validUnsent,
+               Address[] invalid, MessagingException exception) {
+        this.message = message;
+        this.validSent = validSent;
+        this.validUnsent = validUnsent;
+        this.invalid = invalid;
+        this.exception = exception;
+    }
+
+    /**
+     * Return the message this result is about.
+     *
+     * @return the message
+     */
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Return the addresses to which the message was sent.
+     *
+     * @return the valid sent addresses, or null
+     */
+    public Address[] getValidSentAddresses() {
+        return validSent == null ? null : validSent.clone();
+    }
+
+    /**
+     * Return the valid addresses to which the message was not sent.
+     *
+     * @return the valid unsent addresses, or null
+     */
+    public Address[] getValidUnsentAddresses() {
+        return validUnsent == null ? null : validUnsent.clone();
+    }
+
+    /**
+     * Return the addresses that were rejected as invalid.
+     *
+     * @return the invalid addresses, or null
+     */
+    public Address[] getInvalidAddresses() {
+        return invalid == null ? null : invalid.clone();
+    }
+
+    /**
+     * Return the exception that describes why the message could not
+     * be sent to some or all of its recipients.  As with
+     * <code>Transport.send</code>, this is usually a
+     * {@link SendFailedException}.
+     *
+     * @return the exception, or null if sending succeeded
+     */
+    public MessagingException getException() {
+        return exception;
+    }
+
+    /**
+     * Was the message sent to all of its recipients?
+     *
+     * @return true if sending succeeded
+     */
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "sent" : "failed: " + exception;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Package private class that runs tasks one at a time, in the order in
+ * which they were submitted, using another Executor. <p>
+ *
+ * Tasks are added to a non-blocking queue, and a task that runs the
+ * queued tasks is submitted to the Executor whenever the queue becomes
+ * non-empty.  At most one such task runs at a time, and no thread is
+ * used while the queue is idle.  Used by EventQueue in shared mode and
+ * by AsyncSender.
+ */
+final class SerialExecutor implements Executor {
+
+    // the maximum number of tasks run before giving up the thread
+    private static final int BATCH_SIZE = 64;
+
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queue the task to run after all previously queued tasks.
+     *
+     * @param task the task
+     * @throws RejectedExecutionException if the Executor rejects the
+     *          task that runs the queue; the task isn't run
+     */
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        try {
+            schedule();
+        } catch (RejectedExecutionException ex) {
+            tasks.remove(task);
+            throw ex;
+        }
+    }
+
+    /**
+     * Submit a task to run the queued tasks, unless one
+     * is already submitted.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::runTasks);
+            } catch (RejectedExecutionException ex) {
+                scheduled.set(false);
+                throw ex;
+            }
+        }
+    }
+
+    private void runTasks() {
+        for (int n = 1; ; n++) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                scheduled.set(false);
+                // a task may have been added before the flag was cleared
+                if (!tasks.isEmpty())
+                    schedule();
+                return;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                // ignore it, and go on with the next task
+            }
+            if (n == BATCH_SIZE) {
+                // let other queues use the Executor too
+                try {
+                    executor.execute(this::runTasks);
+                    return;
+                } catch (RejectedExecutionException ex) {
+                    n = 0;  // keep going in this thread
+                }
+            }
+        }
+    }
+}
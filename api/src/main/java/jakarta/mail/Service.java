@@ -24,7 +24,6 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.EventListener;
 import java.util.Vector;
-import java.util.concurrent.Executor;
 
 /**
  * An abstract class that contains the functionality
@@ -133,15 +132,13 @@ public abstract class Service implements AutoCloseable {
         // create or choose the appropriate event queue
         String scope =
                 session.getProperties().getProperty("mail.event.scope", "folder");
-        Executor executor =
-                (Executor) session.getProperties().get("mail.event.executor");
         if (scope.equalsIgnoreCase("application"))
-            q = EventQueue.getApplicationEventQueue(executor);
+            q = EventQueue.getApplicationEventQueue(session.getProperties());
         else if (scope.equalsIgnoreCase("session"))
             q = session.getEventQueue();
         else // if (scope.equalsIgnoreCase("store") ||
             //     scope.equalsIgnoreCase("folder"))
-            q = new EventQueue(executor);
+            q = EventQueue.create(session.getProperties());
     }
 
     /**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2025 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.net.InetAddress;
@@ -42,7 +43,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.StringTokenizer;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -223,6 +224,11 @@ public final class Session {
     // maps type to protocol
     // the queue of events to be delivered, if mail.event.scope===session
     private final EventQueue q;
+    // connected transports kept for Transport.send, if mail.transport.pool
+    private volatile TransportPool transportPool;
+    // the constructors found for each provider by getService
+    private final Map<Provider, ServiceFactory> serviceFactories =
+            new ConcurrentHashMap<>();
 
     // The default session.
     private static Session defaultSession = null;
@@ -266,7 +272,7 @@ public final class Session {
         // load the resources
         loadProviders(cl);
         loadAddressMap(cl);
-        q = new EventQueue((Executor) props.get("mail.event.executor"));
+        q = EventQueue.create(props);
     }
 
     /**
@@ -545,6 +551,7 @@ public final class Session {
         providersByProtocol.put(provider.getProtocol(), provider);
         providersByClassName.put(provider.getClassName(), provider);
         props.put("mail." + provider.getProtocol() + ".class", provider.getClassName());
+        serviceFactories.clear();
     }
 
 
@@ -743,15 +750,28 @@ public final class Session {
      * @see jakarta.mail.Address
      */
     public Transport getTransport(Address address) throws NoSuchProviderException {
+        return getTransport(getTransportProtocol(address));
+    }
+
+    /**
+     * Get the name of the Transport protocol used for the
+     * specified address type.
+     *
+     * @param address an address for which a Transport is needed
+     * @return the protocol name
+     * @throws NoSuchProviderException If provider for the
+     *                                    Address type is not found
+     */
+    String getTransportProtocol(Address address) throws NoSuchProviderException {
 
         String transportProtocol;
         transportProtocol =
                 getProperty("mail.transport.protocol." + address.getType());
         if (transportProtocol != null)
-            return getTransport(transportProtocol);
+            return transportProtocol;
         transportProtocol = (String) addressMap.get(address.getType());
         if (transportProtocol != null)
-            return getTransport(transportProtocol);
+            return transportProtocol;
         throw new NoSuchProviderException("No provider for Address type: " + address.getType());
     }
 
@@ -799,6 +819,32 @@ public final class Session {
                     null, null, null);
         }
 
+        // the class found depends on the thread's context class loader,
+        // so only reuse a constructor found with the same one
+        ClassLoader ccl = getContextClassLoader();
+        ServiceFactory f = serviceFactories.get(provider);
+        Constructor<?> cons = f != null ? f.getConstructor(ccl, type) : null;
+        if (cons == null) {
+            cons = getServiceConstructor(provider, type);
+            serviceFactories.put(provider, new ServiceFactory(ccl,
+                    cons.getDeclaringClass()));
+        }
+
+        // construct an instance of the class
+        try {
+            return type.cast(cons.newInstance(this, url));
+        } catch (Exception ex) {
+            logger.log(Level.FINE, "Exception loading provider", ex);
+            throw new NoSuchProviderException(provider.getProtocol());
+        }
+    }
+
+    /**
+     * Find the class named by the provider, and its
+     * (Session, URLName) constructor.
+     */
+    private Constructor<?> getServiceConstructor(Provider provider,
+            Class<? extends Service> type) throws NoSuchProviderException {
         // get the ClassLoader associated with the Authenticator
         Class<?> acl;
         if (authenticator != null)
@@ -806,7 +852,7 @@ public final class Session {
         else
             acl = streamProvider.getClass();
 
-        Class<?> serviceClass = null;
+        Class<? extends Service> serviceClass = null;
         for (ClassLoader l : getClassLoaders(Thread.class,
                                         provider.getClass(),
                                         acl,
@@ -837,19 +883,64 @@ public final class Session {
             }
         }
 
-        // construct an instance of the class
         try {
             Class<?>[] c = {jakarta.mail.Session.class, jakarta.mail.URLName.class};
-            Constructor<?> cons = serviceClass.getConstructor(c);
-
-            Object[] o = {this, url};
-            return type.cast(cons.newInstance(o));
+            return serviceClass.getConstructor(c);
         } catch (Exception ex) {
             logger.log(Level.FINE, "Exception loading provider", ex);
             throw new NoSuchProviderException(provider.getProtocol());
         }
     }
 
+    /**
+     * A provider's service class, and the context class loader in effect
+     * when it was found.  Both are weakly referenced, so that a Session
+     * doesn't keep an application's class loader from being collected.
+     */
+    private static final class ServiceFactory {
+        /*
+         * The (Session, URLName) constructor of each service class, or
+         * null if it has none.  A ClassValue is only reachable through
+         * the class it's computed for, so it doesn't keep the class or
+         * its loader alive.
+         */
+        private static final ClassValue<Constructor<?>> constructors =
+                new ClassValue<Constructor<?>>() {
+                    @Override
+                    protected Constructor<?> computeValue(Class<?> c) {
+                        try {
+                            return c.getConstructor(Session.class,
+                                    URLName.class);
+                        } catch (NoSuchMethodException ex) {
+                            return null;
+                        }
+                    }
+                };
+
+        private final WeakReference<ClassLoader> loader;   // null if none
+        private final WeakReference<Class<?>> serviceClass;
+
+        ServiceFactory(ClassLoader loader, Class<?> serviceClass) {
+            this.loader = loader != null ? new WeakReference<>(loader) : null;
+            this.serviceClass = new WeakReference<>(serviceClass);
+        }
+
+        /**
+         * Return the (Session, URLName) constructor of the service class,
+         * or null if it was found with another context class loader, is
+         * no longer loaded, or isn't of the given type.
+         */
+        Constructor<?> getConstructor(ClassLoader ccl,
+                                      Class<? extends Service> type) {
+            ClassLoader l = loader != null ? loader.get() : null;
+            Class<?> c = serviceClass.get();
+            if (l != ccl || (loader != null && l == null) || c == null ||
+                    !type.isAssignableFrom(c))
+                return null;
+            return constructors.get(c);
+        }
+    }
+
     /**
      * Save a PasswordAuthentication for this (store or transport) URLName.
      * If pw is null the entry corresponding to the URLName is removed.
@@ -1105,6 +1196,7 @@ public final class Session {
         providersByClassName.put(provider.getClassName(), provider);
         if (!providersByProtocol.containsKey(provider.getProtocol()))
             providersByProtocol.put(provider.getProtocol(), provider);
+        serviceFactories.clear();
     }
 
     // load maps in reverse order of preference so that the preferred
@@ -1348,6 +1440,28 @@ public final class Session {
         return q;
     }
 
+    /**
+     * Get the pool of connected Transports used by the static
+     * <code>Transport.send</code> methods.  The pool is created the
+     * first time this method is called with the <code>mail.transport.pool</code>
+     * property set to true.
+     *
+     * @return the pool, or null if pooling is not enabled
+     * @since JavaMail 2.2
+     */
+    public TransportPool getTransportPool() {
+        TransportPool pool = transportPool;
+        if (pool == null &&
+                Boolean.parseBoolean(getProperty("mail.transport.pool"))) {
+            synchronized (this) {
+                pool = transportPool;
+                if (pool == null)
+                    transportPool = pool = TransportPool.create(this);
+            }
+        }
+        return pool;
+    }
+
     private static Class<?>[] getHk2ServiceLoaderTargets(Class<?> factoryClass) {
         ClassLoader[] loaders = getClassLoaders(Thread.class, factoryClass, System.class);
 
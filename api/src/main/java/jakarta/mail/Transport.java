@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2023 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -20,11 +20,15 @@ import jakarta.mail.event.TransportEvent;
 import jakarta.mail.event.TransportListener;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Vector;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * An abstract class that models a message transport.
@@ -86,7 +90,12 @@ public abstract class Transport extends Service {
      * Transport instance used to invoke this method is ignored and not
      * used.  This method should only be invoked using the form
      * <code>Transport.send(msg);</code>, and should never be invoked
-     * using an instance variable.
+     * using an instance variable. <p>
+     *
+     * If the session property <code>mail.transport.pool</code> is set to
+     * "true", the connection is not closed after the message has been
+     * sent successfully, but kept by the Session for reuse by later calls
+     * to <code>send</code> for the same protocol, user name and password.
      *
      * @param msg the message to send
      * @throws SendFailedException if the message could not
@@ -180,6 +189,50 @@ public abstract class Transport extends Service {
         send0(msg, addresses, user, password);
     }
 
+    /**
+     * Send a batch of messages to all the recipient addresses
+     * specified in each message. <p>
+     *
+     * The recipients of all the messages are grouped by Session and
+     * transport protocol, and each group is sent using a single connected
+     * Transport, rather than connecting once per message as the
+     * {@link #send(Message) send} method does. The <code>saveChanges</code>
+     * method is called on each message before sending. <p>
+     *
+     * A failure to send one message does not stop the others from
+     * being sent. Instead, the outcome of each message, including the
+     * exception that {@link #send(Message) send} would have thrown,
+     * is reported in the returned list.
+     *
+     * @param msgs the messages to send
+     * @return the results, in the iteration order of <code>msgs</code>
+     * @see #sendAll(Collection, Executor)
+     * @since JavaMail 2.2
+     */
+    public static List<SendResult> sendAll(Collection<? extends Message> msgs) {
+        return new SendBatch(msgs).send(null);
+    }
+
+    /**
+     * Send a batch of messages to all the recipient addresses
+     * specified in each message, using the given Executor to send
+     * the groups of recipients for different transport protocols
+     * concurrently. This method waits until all the messages have
+     * been sent. <p>
+     *
+     * Messages of the same group are sent one after another over
+     * a single connection; see {@link #sendAll(Collection)}.
+     *
+     * @param msgs     the messages to send
+     * @param executor the Executor used to send each group
+     * @return the results, in the iteration order of <code>msgs</code>
+     * @since JavaMail 2.2
+     */
+    public static List<SendResult> sendAll(Collection<? extends Message> msgs,
+                                           Executor executor) {
+        return new SendBatch(msgs).send(Objects.requireNonNull(executor));
+    }
+
     // send, but without the saveChanges
     private static void send0(Message msg, Address[] addresses,
                               String user, String password) throws MessagingException {
@@ -218,21 +271,32 @@ public abstract class Transport extends Service {
 
         Session s = (msg.session != null) ? msg.session :
                 Session.getDefaultInstance(System.getProperties(), null);
+        TransportPool pool = s.getTransportPool();
         Transport transport;
 
         /*
          * Optimize the case of a single protocol.
          */
         if (dsize == 1) {
-            transport = s.getTransport(addresses[0]);
+            URLName key = pool != null ? TransportPool.key(
+                    s.getTransportProtocol(addresses[0]), user, password) : null;
+            transport = key != null ? pool.take(key) : null;
+            boolean reuse = false;
             try {
-                if (user != null)
-                    transport.connect(user, password);
-                else
-                    transport.connect();
+                if (transport == null) {
+                    transport = s.getTransport(addresses[0]);
+                    if (user != null)
+                        transport.connect(user, password);
+                    else
+                        transport.connect();
+                }
                 transport.sendMessage(msg, addresses);
+                reuse = key != null;
             } finally {
-                transport.close();
+                if (reuse)
+                    pool.release(key, transport);
+                else if (transport != null)
+                    transport.close();
             }
             return;
         }
@@ -248,16 +312,25 @@ public abstract class Transport extends Service {
             Address[] protaddresses = new Address[v.size()];
             v.toArray(protaddresses);
 
+            // Reuse a pooled Transport for this address type, if any.
+            URLName key = pool != null ? TransportPool.key(
+                    s.getTransportProtocol(protaddresses[0]), null, null) : null;
+            boolean connected = false;
+            if (key != null && (transport = pool.take(key)) != null) {
+                connected = true;
             // Get a Transport that can handle this address type.
-            if ((transport = s.getTransport(protaddresses[0])) == null) {
+            } else if ((transport = s.getTransport(protaddresses[0])) == null) {
                 // Could not find an appropriate Transport ..
                 // Mark these addresses invalid.
                 Collections.addAll(invalid, protaddresses);
                 continue;
             }
+            boolean reuse = false;
             try {
-                transport.connect();
+                if (!connected)
+                    transport.connect();
                 transport.sendMessage(msg, protaddresses);
+                reuse = key != null;
             } catch (SendFailedException sex) {
                 sendFailed = true;
                 // chain the exception we're catching to any previous ones
@@ -288,7 +361,10 @@ public abstract class Transport extends Service {
                 else
                     chainedEx.setNextException(mex);
             } finally {
-                transport.close();
+                if (reuse)
+                    pool.release(key, transport);
+                else
+                    transport.close();
             }
         }
 
@@ -337,6 +413,58 @@ public abstract class Transport extends Service {
     public abstract void sendMessage(Message msg, Address[] addresses)
             throws MessagingException;
 
+    // sends queued by sendAsync, created when first needed
+    private volatile AsyncSender asyncSender;
+    private final Object asyncSenderLock = new Object();
+
+    /**
+     * Send the Message to the specified list of addresses without
+     * waiting for the message to be sent. <p>
+     *
+     * The message is sent by calling {@link #sendMessage sendMessage}
+     * from a task run by the Executor in the
+     * <code>mail.transport.async.executor</code> session property.
+     * If that property is not set, messages are sent from virtual
+     * threads if the JDK supports them, or else from a pool of daemon
+     * threads.
+     * Messages are sent one at a time over this Transport's connection,
+     * in the order in which <code>sendAsync</code> was called.
+     * TransportEvents are delivered to registered TransportListeners
+     * just as for <code>sendMessage</code>. <p>
+     *
+     * If a SendFailedException or other MessagingException is thrown by
+     * <code>sendMessage</code>, the returned stage completes normally with
+     * a {@link SendResult} that reports the exception. The stage completes
+     * exceptionally only if <code>sendMessage</code> throws an unchecked
+     * exception. <p>
+     *
+     * At most <code>mail.transport.async.limit</code> (default 100)
+     * messages may be waiting to be sent. If that many are already waiting,
+     * this method blocks until one of them has been sent. <p>
+     *
+     * Like <code>sendMessage</code>, this method does <em>not</em> call the
+     * <code>saveChanges</code> method on the message, and this Transport
+     * must be connected when the message is sent.
+     *
+     * @param msg       The Message to be sent
+     * @param addresses array of addresses to send this message to
+     * @return a stage that completes when the message has been sent
+     * @see #sendMessage
+     * @since JavaMail 2.2
+     */
+    public CompletionStage<SendResult> sendAsync(Message msg,
+                                                 Address[] addresses) {
+        AsyncSender sender = asyncSender;
+        if (sender == null) {
+            synchronized (asyncSenderLock) {
+                sender = asyncSender;
+                if (sender == null)
+                    asyncSender = sender = AsyncSender.create(this, session);
+            }
+        }
+        return sender.send(msg, addresses);
+    }
+
     // Vector of Transport listeners
     private volatile Vector<TransportListener> transportListeners = null;
 
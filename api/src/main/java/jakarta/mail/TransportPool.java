@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * The connected Transports a Session keeps for reuse by the static
+ * <code>Transport.send</code> methods, when the
+ * <code>mail.transport.pool</code> property is set.  Use
+ * {@link Session#getTransportPool Session.getTransportPool} to get the
+ * pool of a Session. <p>
+ *
+ * Idle Transports are kept per URLName (protocol, user name and
+ * password), at most <code>mail.transport.pool.size</code> of them for
+ * each URLName.  A Transport that has been idle for
+ * <code>mail.transport.pool.timeout</code> milliseconds is closed by a
+ * background thread, and a Transport is only handed out again if its
+ * <code>isConnected</code> method returns true.
+ *
+ * @since JavaMail 2.2
+ */
+public final class TransportPool {
+
+    private static final int DEFAULT_SIZE = 4;
+    private static final long DEFAULT_TIMEOUT = 60000L;
+
+    private final int size;
+    private final long timeout;
+    private final MailLogger logger;
+
+    // idle transports, most recently used last; guarded by this
+    private final Map<URLName, Deque<Idle>> idle = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // closes Transports that time out; guarded by this
+    private ScheduledFuture<?> reaper;
+    private boolean closed;
+
+    // the thread shared by all pools to close idle Transports
+    private static final class Reaper {
+        static final ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(1, r -> {
+                    Thread t = new Thread(r, "Jakarta Mail TransportPool");
+                    t.setDaemon(true);  // not a user thread
+                    return t;
+                });
+
+        static {
+            executor.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    /**
+     * An idle Transport and the time it was returned to the pool.
+     */
+    private static final class Idle {
+        final Transport transport;
+        final long since;
+
+        Idle(Transport transport, long since) {
+            this.transport = transport;
+            this.since = since;
+        }
+    }
+
+    TransportPool(int size, long timeout, MailLogger logger) {
+        this.size = size;
+        this.timeout = timeout;
+        this.logger = logger;
+    }
+
+    /**
+     * Create the pool configured by the <code>mail.transport.pool</code>
+     * properties of the session, or return null if pooling is disabled.
+     */
+    static TransportPool create(Session session) {
+        if (!Boolean.parseBoolean(session.getProperty("mail.transport.pool")))
+            return null;
+        MailLogger logger = new MailLogger(TransportPool.class, "DEBUG",
+                session.getDebug(), session.getDebugOut());
+        int size = DEFAULT_SIZE;
+        long timeout = DEFAULT_TIMEOUT;
+        try {
+            String s = session.getProperty("mail.transport.pool.size");
+            if (s != null)
+                size = Integer.parseInt(s.trim());
+            s = session.getProperty("mail.transport.pool.timeout");
+            if (s != null)
+                timeout = Long.parseLong(s.trim());
+        } catch (NumberFormatException nfex) {
+            logger.log(Level.CONFIG, "bad transport pool property", nfex);
+        }
+        return new TransportPool(size, timeout, logger);
+    }
+
+    /**
+     * The key under which Transports for the protocol, connected with
+     * the given user name and password, are kept.
+     */
+    static URLName key(String protocol, String user, String password) {
+        return new URLName(protocol, null, -1, null, user, password);
+    }
+
+    /**
+     * Take an idle, connected Transport for the key out of the pool.
+     *
+     * @param key the URLName of the Transport
+     * @return the Transport, or null if none is available
+     */
+    Transport take(URLName key) {
+        List<Transport> stale = new ArrayList<>();
+        Transport t = null;
+        try {
+            long now = System.currentTimeMillis();
+            while (t == null) {
+                Idle e;
+                synchronized (this) {
+                    expire(now, stale);
+                    Deque<Idle> d = idle.get(key);
+                    e = d != null ? d.pollLast() : null;
+                }
+                if (e == null)
+                    break;
+                if (e.transport.isConnected())
+                    t = e.transport;
+                else
+                    stale.add(e.transport);
+            }
+        } finally {
+            close(stale);
+        }
+        if (t != null)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+        if (logger.isLoggable(Level.FINE))
+            logger.log(Level.FINE, "transport pool {0} for {1}: {2}",
+                    t != null ? "hit" : "miss", key.getProtocol(), this);
+        return t;
+    }
+
+    /**
+     * Return a connected Transport to the pool.  The Transport is
+     * closed instead if the pool for the key is full, if idle
+     * Transports time out right away, or if the pool has been closed.
+     *
+     * @param key the URLName of the Transport
+     * @param t   the Transport
+     * @throws MessagingException if closing the Transport fails
+     */
+    void release(URLName key, Transport t) throws MessagingException {
+        List<Transport> stale = new ArrayList<>();
+        boolean kept = false;
+        try {
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                expire(now, stale);
+                if (!closed && timeout > 0) {
+                    Deque<Idle> d = idle.computeIfAbsent(key,
+                            k -> new ArrayDeque<>());
+                    if (d.size() < size) {
+                        d.addLast(new Idle(t, now));
+                        kept = true;
+                        schedule(timeout);
+                    }
+                    if (d.isEmpty())
+                        idle.remove(key);
+                }
+            }
+        } finally {
+            close(stale);
+        }
+        if (!kept)
+            t.close();
+    }
+
+    /**
+     * Move all Transports that have been idle for too long to
+     * <code>stale</code>.  Must be called with the lock held.
+     */
+    private void expire(long now, List<Transport> stale) {
+        for (Iterator<Deque<Idle>> it = idle.values().iterator();
+             it.hasNext(); ) {
+            Deque<Idle> d = it.next();
+            // the oldest entries are first
+            while (!d.isEmpty() && now - d.peekFirst().since >= timeout)
+                stale.add(d.pollFirst().transport);
+            if (d.isEmpty())
+                it.remove();
+        }
+    }
+
+    /**
+     * Run the reaper after the delay, unless it's already scheduled.
+     * Must be called with the lock held.
+     */
+    private void schedule(long delay) {
+        if (reaper == null)
+            reaper = Reaper.executor.schedule(this::reap, delay,
+                    TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Close the Transports that have timed out, and run again when
+     * the next one will.
+     */
+    private void reap() {
+        List<Transport> stale = new ArrayList<>();
+        synchronized (this) {
+            reaper = null;
+            long now = System.currentTimeMillis();
+            expire(now, stale);
+            long oldest = Long.MAX_VALUE;
+            for (Deque<Idle> d : idle.values())
+                oldest = Math.min(oldest, d.peekFirst().since);
+            if (oldest != Long.MAX_VALUE)
+                schedule(Math.max(oldest + timeout - now, 0));
+        }
+        close(stale);
+    }
+
+    /**
+     * Close all idle Transports.  From now on, Transports returned to
+     * the pool are closed instead of being kept, so
+     * <code>Transport.send</code> connects anew for every message.
+     */
+    public void close() {
+        List<Transport> stale = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            if (reaper != null) {
+                reaper.cancel(false);
+                reaper = null;
+            }
+            for (Deque<Idle> d : idle.values())
+                for (Idle e : d)
+                    stale.add(e.transport);
+            idle.clear();
+        }
+        close(stale);
+    }
+
+    /**
+     * Close evicted Transports, outside of the lock.
+     */
+    private void close(List<Transport> stale) {
+        for (Transport t : stale) {
+            evictions.incrementAndGet();
+            try {
+                t.close();
+            } catch (MessagingException mex) {
+                logger.log(Level.FINE, "closing evicted transport", mex);
+            }
+        }
+    }
+
+    /**
+     * Return the number of times a connected Transport was reused.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Return the number of times no connected Transport was available.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Return the number of idle Transports that were closed because they
+     * timed out, were no longer connected, or the pool was closed.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits.get() + ", misses=" + misses.get() +
+                ", evictions=" + evictions.get();
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.internet;
+
+import jakarta.mail.util.SharedByteArrayInputStream;
+import jakarta.mail.util.SharedFileInputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * The body of a message or body part read from a stream that isn't a
+ * SharedInputStream.  Bodies no larger than the threshold set by the
+ * <code>mail.mime.buffer.threshold</code> property are kept in memory,
+ * as the <code>content</code> byte array.  Larger bodies are copied to
+ * a temporary file, which is then read through a SharedFileInputStream
+ * used as the <code>contentStream</code>, so that MimeMultipart can
+ * still parse the body parts without copying them.
+ */
+final class BodyBuffer {
+    private static final String THRESHOLD = "mail.mime.buffer.threshold";
+
+    // the threshold for body parts, which aren't created with a Session
+    static final long systemThreshold = threshold(System.getProperties());
+
+    byte[] content;
+    InputStream contentStream;
+
+    private BodyBuffer() {
+    }
+
+    /**
+     * Return the threshold set in the properties, or -1 if bodies
+     * should always be kept in memory.
+     */
+    static long threshold(Properties props) {
+        Object v = props.get(THRESHOLD);
+        if (v == null)
+            v = props.getProperty(THRESHOLD);
+        if (v instanceof Number)
+            return ((Number) v).longValue();
+        if (v instanceof String) {
+            try {
+                return Long.parseLong(((String) v).trim());
+            } catch (NumberFormatException nfex) {
+                // ignore it
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read the rest of the stream, keeping it in memory if it's
+     * no larger than threshold bytes.
+     */
+    static BodyBuffer read(InputStream is, long threshold) throws IOException {
+        BodyBuffer b = new BodyBuffer();
+        if (threshold < 0) {
+            b.content = MimeUtility.getBytes(is);
+            return b;
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(
+                (int) Math.min(threshold + 1, 8192));
+        byte[] buf = new byte[8192];
+        int len;
+        while ((len = is.read(buf)) != -1) {
+            bos.write(buf, 0, len);
+            if (bos.size() > threshold) {
+                b.contentStream = spill(bos, buf, is);
+                return b;
+            }
+        }
+        b.content = bos.toByteArray();
+        return b;
+    }
+
+    /**
+     * Copy what's been read so far, and the rest of the stream,
+     * to a temporary file, and return a stream to read it.
+     */
+    private static InputStream spill(ByteArrayOutputStream bos, byte[] buf,
+                                     InputStream is) throws IOException {
+        // only the owner can read the file, where that's supported
+        Path f = Files.createTempFile("jakartamail", ".tmp");
+        SharedFileInputStream sfis = null;
+        try {
+            try (OutputStream os = Files.newOutputStream(f)) {
+                bos.writeTo(os);
+                bos = null;
+                int len;
+                while ((len = is.read(buf)) != -1)
+                    os.write(buf, 0, len);
+            }
+            sfis = new SharedFileInputStream(f.toFile());
+            // the open file can still be read once it's been removed
+            if (deleted(f))
+                return sfis;
+            // except on systems that don't allow open files to be
+            // removed, where the body has to be kept in memory after all
+            sfis.close();
+            sfis = null;
+            byte[] data = Files.readAllBytes(f);
+            Files.delete(f);
+            return new SharedByteArrayInputStream(data);
+        } catch (IOException | RuntimeException ex) {
+            if (sfis != null) {
+                try {
+                    sfis.close();
+                } catch (IOException cex) {
+                    ex.addSuppressed(cex);
+                }
+            }
+            deleted(f);
+            throw ex;
+        }
+    }
+
+    private static boolean deleted(Path f) {
+        try {
+            Files.deleteIfExists(f);
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * An OutputStream that keeps what's written to it in memory, up to
+     * the threshold, and writes anything larger to a temporary file.
+     * Used by MimeMultipart to hold body parts encoded ahead of time.
+     */
+    static final class Output extends OutputStream {
+        private final long threshold;
+        private ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        private Path file;
+        private OutputStream fos;
+
+        Output(long threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out(1).write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out(len).write(b, off, len);
+        }
+
+        private OutputStream out(int len) throws IOException {
+            if (fos != null)
+                return fos;
+            if (threshold < 0 || bos.size() + (long) len <= threshold)
+                return bos;
+            // only the owner can read the file, where that's supported
+            file = Files.createTempFile("jakartamail", ".tmp");
+            try {
+                fos = new BufferedOutputStream(Files.newOutputStream(file));
+            } catch (IOException | RuntimeException ex) {
+                deleted(file);
+                file = null;
+                throw ex;
+            }
+            bos.writeTo(fos);
+            bos = null;
+            return fos;
+        }
+
+        /**
+         * Copy everything written so far to the stream.
+         */
+        void copyTo(OutputStream os) throws IOException {
+            if (fos == null) {
+                bos.writeTo(os);
+                return;
+            }
+            fos.close();
+            try (InputStream is = Files.newInputStream(file)) {
+                is.transferTo(os);
+            }
+        }
+
+        /**
+         * Remove the temporary file, if any.
+         */
+        void discard() {
+            if (fos == null)
+                return;
+            try {
+                fos.close();
+            } catch (IOException ex) {
+                // ignore it
+            }
+            deleted(file);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.internet;
+
+/**
+ * A multipart boundary string, with the Boyer-Moore tables
+ * used to search for it.
+ */
+final class Boundary {
+    final byte[] bytes;    // the boundary, including the leading "--"
+    final int[] bcs;    // Bad Character Shift table
+    final int[] gss;    // Good Suffix Shift table
+
+    /**
+     * Compile the Boyer-Moore tables for the boundary, which
+     * includes the leading "--".
+     */
+    Boundary(String boundary) {
+        // save individual boundary bytes for comparison later
+        byte[] bndbytes = MimeUtility.getBytes(boundary);
+        int bl = bndbytes.length;
+
+        // initialize Bad Character Shift table
+        bcs = new int[256];
+        for (int i = 0; i < bl; i++)
+            bcs[bndbytes[i] & 0xff] = i + 1;
+
+        // initialize Good Suffix Shift table
+        gss = new int[bl];
+        NEXT:
+        for (int i = bl; i > 0; i--) {
+            int j;    // the beginning index of the suffix being considered
+            for (j = bl - 1; j >= i; j--) {
+                // Testing for good suffix
+                if (bndbytes[j] == bndbytes[j - i]) {
+                    // bndbytes[j..len] is a good suffix
+                    gss[j - 1] = i;
+                } else {
+                    // No match. The array has already been
+                    // filled up with correct values before.
+                    continue NEXT;
+                }
+            }
+            while (j > 0)
+                gss[--j] = i;
+        }
+        gss[bl - 1] = 1;
+        bytes = bndbytes;
+    }
+
+    int length() {
+        return bytes.length;
+    }
+
+    /**
+     * Return the index of the first occurrence of the boundary that
+     * lies entirely within buf[from, to), or -1 if there is none.
+     */
+    int indexOf(byte[] buf, int from, int to) {
+        int bl = bytes.length;
+        for (int k = from; k <= to - bl; ) {
+            int i;
+            for (i = bl - 1; i >= 0; i--) {
+                if (buf[k + i] != bytes[i])
+                    break;
+            }
+            if (i < 0)
+                return k;
+            // compute how many bytes we can skip
+            k += Math.max(i + 1 - bcs[buf[k + i] & 0xff], gss[i]);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.internet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A buffered multipart stream that returns the body of each part as
+ * a series of chunks of its buffer, ending at the delimiter line for
+ * the part's boundary.  The Boyer-Moore search for the boundary runs
+ * over everything in the buffer, rather than over a window the size
+ * of the boundary, and only the bytes that might still turn out to
+ * be the start of a delimiter are held back between chunks.
+ */
+final class BoundaryInput {
+    // how the body most recently read ended
+    static final int NONE = 0;    // it hasn't ended yet
+    static final int NEXT = 1;    // at a delimiter line
+    static final int CLOSE = 2;   // at a close delimiter line
+    static final int EOF = 3;     // at end of stream
+
+    private final InputStream in;
+    private byte[] buf;
+    private int pos;    // next byte to return
+    private int limit;    // end of the valid data in buf
+    private boolean eof;
+    private long consumed;    // the number of bytes dropped from buf
+    private int mark = -1;    // position saved by Stream.mark
+
+    private boolean bodyStart;    // is pos at the start of a body?
+    private int scanned;    // boundaries starting before here were rejected
+    private int delimiter = NONE;
+    private int delimStart, delimEnd, delimKind;    // from checkDelimiter
+
+    // the chunk returned by the last call to nextChunk
+    int chunkStart, chunkLength;
+
+    BoundaryInput(InputStream in, int size) {
+        this.in = in;
+        buf = new byte[size];
+        startBody();
+    }
+
+    /**
+     * The buffer holding the current chunk.
+     */
+    byte[] buffer() {
+        return buf;
+    }
+
+    /**
+     * Start reading a new body at the current position, which is
+     * at the start of a line.
+     */
+    void startBody() {
+        bodyStart = true;
+        scanned = pos;
+        delimiter = NONE;
+        mark = -1;
+    }
+
+    /**
+     * The number of bytes read from the stream before the current
+     * position.
+     */
+    long position() {
+        return consumed + pos;
+    }
+
+    /**
+     * The number of bytes read from the stream before the given
+     * index in the buffer.
+     */
+    long position(int index) {
+        return consumed + index;
+    }
+
+    /**
+     * Read a line of ISO-8859-1 text, ending with CR, LF, or CRLF.
+     * Return the line without the line terminator, or null at end
+     * of stream.
+     */
+    String readLine() throws IOException {
+        for (int n = 0; ; n++) {
+            while (pos + n == limit) {
+                if (fill())
+                    continue;
+                if (eof) {
+                    if (n == 0)
+                        return null;
+                    String line = new String(buf, pos, n,
+                            StandardCharsets.ISO_8859_1);
+                    pos += n;
+                    return line;
+                }
+                // a long line, make room for more of it
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            byte c = buf[pos + n];
+            if (c == '\n' || c == '\r') {
+                String line = new String(buf, pos, n,
+                        StandardCharsets.ISO_8859_1);
+                pos += n + 1;
+                if (c == '\r' && (pos < limit || fill()) && buf[pos] == '\n')
+                    pos++;
+                return line;
+            }
+        }
+    }
+
+    /**
+     * How the body most recently read ended.
+     */
+    int delimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Return the next chunk of the body ending at the delimiter line for
+     * the boundary, or at the end of the stream if the boundary is null,
+     * in chunkStart and chunkLength.  The chunk stays valid until this
+     * object is used again.  Return false at the end of the body; the
+     * delimiter line, if any, has then been skipped and the
+     * {@link #delimiter} method tells how the body ended.
+     */
+    boolean nextChunk(Boundary b) throws IOException {
+        if (delimiter != NONE)
+            return false;
+        if (b != null && buf.length < 4 * (b.length() + 2))
+            buf = Arrays.copyOf(buf, 4 * (b.length() + 2));
+        for (;;) {
+            if (b != null && findDelimiter(b)) {
+                delimiter = delimKind;
+                int start = pos;
+                pos = delimEnd;
+                return chunk(start, delimStart);
+            }
+            // keep anything that might precede a boundary not yet seen
+            int end = eof || b == null ? limit : Math.max(pos, scanned - 2);
+            if (eof && pos == limit) {
+                delimiter = EOF;
+                return false;
+            }
+            boolean full = pos == 0 && limit == buf.length;
+            if (end > pos && (eof || full || end - pos >= buf.length / 2)) {
+                int start = pos;
+                pos = end;
+                return chunk(start, end);
+            }
+            // a possible delimiter line longer than the buffer,
+            // make room for the rest of it
+            if (full)
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            fill();
+        }
+    }
+
+    private boolean chunk(int start, int end) {
+        chunkStart = start;
+        chunkLength = end - start;
+        if (chunkLength > 0)
+            bodyStart = false;
+        return chunkLength > 0;
+    }
+
+    /**
+     * Find the first delimiter line for the boundary in the buffer,
+     * reading more data as needed to decide whether a boundary near the
+     * end of the buffer is a delimiter.  If one is found, set delimStart,
+     * delimEnd, and delimKind, and return true.  Otherwise set scanned
+     * to the first position not yet searched, or to a boundary that
+     * can't be checked until there's more room in the buffer, and
+     * return false.
+     */
+    private boolean findDelimiter(Boundary b) throws IOException {
+        for (;;) {
+            int k = b.indexOf(buf, Math.max(pos, scanned), limit);
+            if (k < 0) {
+                scanned = Math.max(scanned, Math.max(pos, limit - b.length() + 1));
+                return false;
+            }
+            int r = checkDelimiter(b, k);
+            if (r > 0)
+                return true;
+            if (r < 0) {
+                int rel = k - pos;
+                boolean more = fill();
+                k = pos + rel;
+                if (more || eof)
+                    continue;    // look at it again
+                // the buffer is full; return what's before the boundary
+                // and look at the boundary again when there's room
+                scanned = k;
+                return false;
+            }
+            scanned = k + 1;
+        }
+    }
+
+    /**
+     * Is the boundary at k a delimiter line?  It must be at the start of
+     * the body or preceded by an EOL, which is part of the delimiter, and
+     * must be followed by "--", or by optional whitespace and an EOL.
+     * Return 1 if it is, 0 if it isn't, or -1 if more data is needed.
+     */
+    private int checkDelimiter(Boundary b, int k) {
+        int eolLen;
+        if (k == pos && bodyStart) {
+            eolLen = 0;
+        } else if (k > pos && buf[k - 1] == '\n') {
+            eolLen = k - 2 >= pos && buf[k - 2] == '\r' ? 2 : 1;
+        } else if (k > pos && buf[k - 1] == '\r') {
+            eolLen = 1;
+        } else {
+            return 0;
+        }
+        int j = k + b.length();
+        if (j + 2 > limit && !eof)
+            return -1;
+        if (j + 2 <= limit && buf[j] == '-' && buf[j + 1] == '-') {
+            delimKind = CLOSE;
+            j += 2;    // ignore trailing text
+        } else {
+            // skip linear whitespace
+            while (j < limit && (buf[j] == ' ' || buf[j] == '\t'))
+                j++;
+            if (j == limit)
+                return eof ? 0 : -1;
+            if (buf[j] == '\r') {
+                if (j + 1 == limit && !eof)
+                    return -1;
+                j++;
+                if (j < limit && buf[j] == '\n')
+                    j++;
+            } else if (buf[j] == '\n') {
+                j++;
+            } else {
+                return 0;
+            }
+            delimKind = NEXT;
+        }
+        delimStart = k - eolLen;
+        delimEnd = j;
+        return 1;
+    }
+
+    /**
+     * Read more data into the buffer, first moving the unread data to
+     * the start of the buffer.  Return false at end of stream, or if
+     * the buffer is full.
+     */
+    private boolean fill() throws IOException {
+        int keep = mark >= 0 ? Math.min(mark, pos) : pos;
+        if (keep > 0) {
+            System.arraycopy(buf, keep, buf, 0, limit - keep);
+            consumed += keep;
+            limit -= keep;
+            pos -= keep;
+            scanned = Math.max(0, scanned - keep);
+            if (mark >= 0)
+                mark -= keep;
+        }
+        if (eof || limit == buf.length)
+            return false;
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    /**
+     * Return a stream that reads from the current position,
+     * e.g., to read the headers of a body part.
+     */
+    InputStream stream() {
+        return new Stream();
+    }
+
+    void close() throws IOException {
+        in.close();
+    }
+
+    private final class Stream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            if (pos == limit && !more())
+                return -1;
+            return buf[pos++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (pos == limit && !more())
+                return -1;
+            int n = Math.min(len, limit - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        /*
+         * Read more data, giving up the mark if it's been read past.
+         */
+        private boolean more() throws IOException {
+            while (pos == limit) {
+                if (!fill()) {
+                    if (eof)
+                        return false;
+                    mark = -1;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int available() {
+            return limit - pos;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            // the mark is kept as long as there's room in the buffer
+            mark = pos;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            if (mark < 0)
+                throw new IOException("Resetting to invalid mark");
+            pos = mark;
+        }
+    }
+}
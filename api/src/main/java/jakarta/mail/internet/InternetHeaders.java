@@ -18,15 +18,19 @@ package jakarta.mail.internet;
 
 import jakarta.mail.Header;
 import jakarta.mail.MessagingException;
-import jakarta.mail.util.LineInputStream;
-import jakarta.mail.util.StreamProvider;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 
@@ -69,6 +73,8 @@ public class InternetHeaders {
     private static final boolean ignoreWhitespaceLines =
             MimeUtility.getBooleanSystemProperty("mail.mime.ignorewhitespacelines",
                     false);
+    private static final boolean defaultUtf8 =
+            MimeUtility.getBooleanSystemProperty("mail.mime.allowutf8", false);
 
     /**
      * An individual internet header.  This class is only used by
@@ -92,7 +98,15 @@ public class InternetHeaders {
          * whitespace, etc.
          */
         String line;    // the entire RFC822 header "line",
-        // or null if placeholder
+        // or null if placeholder or not yet decoded
+
+        /*
+         * Headers read by the load method keep their line as a range
+         * of the raw header block and decode it on first use.  The
+         * line field must only be read once raw is seen to be null.
+         */
+        private volatile HeaderBlock raw;
+        private int start, end;
 
         /**
          * Constructor that takes a line and splits out
@@ -126,11 +140,50 @@ public class InternetHeaders {
                 line = null;
         }
 
+        /*
+         * Constructor for a header line still held in the header block.
+         */
+        InternetHeader(HeaderBlock b, int start, int end) {
+            super(b.name(start, end), "");
+            this.start = start;
+            this.end = end;
+            raw = b;
+        }
+
+        /*
+         * Return the header line, decoding it if necessary.
+         */
+        String line() {
+            HeaderBlock b = raw;
+            if (b == null)
+                return line;
+            String l = b.decode(start, end);
+            line = l;
+            raw = null;
+            return l;
+        }
+
+        /*
+         * Replace the header line, or make this a placeholder if null.
+         */
+        void setLine(String l) {
+            line = l;
+            raw = null;
+        }
+
+        /*
+         * Is this a real header, and not a placeholder?
+         */
+        boolean hasLine() {
+            return raw != null || line != null;
+        }
+
         /**
          * Return the "value" part of the header line.
          */
         @Override
         public String getValue() {
+            String line = line();
             int i = line.indexOf(':');
             if (i < 0)
                 return line;
@@ -147,7 +200,7 @@ public class InternetHeaders {
         @Override
         public String toString() {
             // super.value in this class is not meaningful
-            String value = line == null ? null : getValue();
+            String value = hasLine() ? getValue() : null;
             return "InternetHeader{" +
                    "name='" + name + '\'' +
                    ", value='" + value + '\'' +
@@ -208,7 +261,7 @@ public class InternetHeaders {
             InternetHeader h = next_header;
             next_header = null;
             if (want_line)
-                return h.line;
+                return h.line();
             else
                 return new Header(h.getName(), h.getValue());
         }
@@ -223,7 +276,7 @@ public class InternetHeaders {
                 InternetHeader h = e.next();
 
                 // skip "place holder" headers
-                if (h.line == null)
+                if (!h.hasLine())
                     continue;
 
                 // if no names to match against, return appropriately
@@ -278,6 +331,125 @@ public class InternetHeaders {
 
     }
 
+    /**
+     * The List used to hold the headers, with an index of the headers
+     * by name so that they can be found without scanning the list. <p>
+     *
+     * The index maps the case folded header name to the headers with that
+     * name, in list order.  The methods of InternetHeaders keep the index
+     * up to date when they change the list.  If the list is changed in any
+     * other way, for example by a subclass, the index is rebuilt when it's
+     * next needed.  Once a view of the list is created using
+     * <code>subList</code>, which can change the list behind our back,
+     * the index is no longer used.
+     */
+    private static final class HeaderList extends ArrayList<InternetHeader> {
+        private static final long serialVersionUID = 5765322245151366455L;
+
+        /**
+         * The index, and the modCount of the list it reflects.
+         */
+        private static final class Index {
+            final Map<String, List<InternetHeader>> byName;
+            final int modCount;
+
+            Index(Map<String, List<InternetHeader>> byName, int modCount) {
+                this.byName = byName;
+                this.modCount = modCount;
+            }
+        }
+
+        private transient volatile Index index;
+        private transient volatile boolean indexable = true;
+
+        HeaderList(int initialCapacity) {
+            super(initialCapacity);
+        }
+
+        /**
+         * Return the index if it's up to date.  Otherwise, if build is
+         * true, build a new index, or else return null.
+         */
+        Map<String, List<InternetHeader>> index(boolean build) {
+            Index ix = index;
+            if (ix != null && ix.modCount == modCount)
+                return ix.byName;
+            if (!build || !indexable)
+                return null;
+            Map<String, List<InternetHeader>> byName = new HashMap<>();
+            for (InternetHeader h : this)
+                byName.computeIfAbsent(key(h.getName()),
+                        k -> new ArrayList<>(2)).add(h);
+            index = new Index(byName, modCount);
+            return byName;
+        }
+
+        /**
+         * The index returned by <code>index</code> before the list was
+         * changed has been updated to reflect the change.
+         */
+        void indexUpdated(Map<String, List<InternetHeader>> byName) {
+            index = new Index(byName, modCount);
+        }
+
+        @Override
+        public InternetHeader set(int i, InternetHeader h) {
+            index = null;
+            return super.set(i, h);
+        }
+
+        @Override
+        public List<InternetHeader> subList(int fromIndex, int toIndex) {
+            indexable = false;
+            index = null;
+            return super.subList(fromIndex, toIndex);
+        }
+    }
+
+    /**
+     * Return the key of the header name in the index.  Names that are
+     * equal ignoring case, as defined by <code>equalsIgnoreCase</code>,
+     * have the same key.
+     */
+    static String key(String name) {
+        int len = name.length();
+        int i = 0;
+        while (i < len) {
+            char c = name.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || c >= 128)
+                break;
+            i++;
+        }
+        if (i == len)
+            return name;
+        char[] k = name.toCharArray();
+        for (; i < len; i++) {
+            char c = k[i];
+            if (c >= 'A' && c <= 'Z')
+                k[i] = (char) (c + ('a' - 'A'));
+            else if (c >= 128)
+                k[i] = Character.toLowerCase(Character.toUpperCase(c));
+        }
+        return new String(k);
+    }
+
+    /**
+     * Return the index of the headers, or null if the headers
+     * list isn't one that can be indexed.
+     */
+    private Map<String, List<InternetHeader>> index(boolean build) {
+        List<InternetHeader> l = headers;
+        return l instanceof HeaderList ? ((HeaderList) l).index(build) : null;
+    }
+
+    /**
+     * Note that the index returned by <code>index(false)</code> before
+     * the headers were changed has been updated.
+     */
+    private void indexUpdated(Map<String, List<InternetHeader>> byName) {
+        ((HeaderList) headers).indexUpdated(byName);
+    }
+
     /**
      * The actual list of Headers, including placeholder entries.
      * Placeholder entries are Headers with a null value and
@@ -300,7 +472,7 @@ public class InternetHeaders {
      * are inserted to indicate the preferred order of headers.
      */
     public InternetHeaders() {
-        headers = new ArrayList<>(40);
+        headers = new HeaderList(40);
         headers.add(new InternetHeader("Return-Path", null));
         headers.add(new InternetHeader("Received", null));
         headers.add(new InternetHeader("Resent-Date", null));
@@ -371,7 +543,7 @@ public class InternetHeaders {
      */
     public InternetHeaders(InputStream is, boolean allowutf8)
             throws MessagingException {
-        headers = new ArrayList<>(40);
+        headers = new HeaderList(40);
         load(is, allowutf8);
     }
 
@@ -413,9 +585,11 @@ public class InternetHeaders {
             throws MessagingException {
         // Read header lines until a blank line. It is valid
         // to have BodyParts with no header lines.
-        String line;
-        LineInputStream lis = StreamProvider.provider().inputLineStream(is, allowutf8);
-        String prevline = null;    // the previous header line, as a string
+        HeaderBlock block = new HeaderBlock(is, allowutf8 || defaultUtf8);
+        // a subclass may override addHeaderLine, so only headers
+        // of this class are left undecoded in the header block
+        boolean lazy = getClass() == InternetHeaders.class;
+        int hstart = -1, hend = -1;    // the previous header line, as a range
         // a buffer to accumulate the header in, when we know it's needed
         StringBuilder lineBuffer = new StringBuilder();
 
@@ -424,48 +598,208 @@ public class InternetHeaders {
             // we ignore it if it's otherwise empty or we treat it as
             // a non-continuation line if it has non-whitespace content
             boolean first = true;
+            int start, end;
             do {
-                line = lis.readLine();
-                if (line != null &&
-                        (line.startsWith(" ") || line.startsWith("\t"))) {
+                end = block.readLine();
+                start = block.lineStart;
+                if (end > start && block.isContinuation(start)) {
                     // continuation of header
-                    if (prevline != null) {
-                        lineBuffer.append(prevline);
-                        prevline = null;
-                    }
-                    if (first) {
-                        String lt = line.trim();
+                    if (hstart >= 0) {
+                        // the range simply grows to include this line
+                        hend = end;
+                    } else if (first) {
+                        String lt = block.decode(start, end).trim();
                         if (lt.length() > 0)
                             lineBuffer.append(lt);
                     } else {
                         if (lineBuffer.length() > 0)
                             lineBuffer.append("\r\n");
-                        lineBuffer.append(line);
+                        lineBuffer.append(block.decode(start, end));
                     }
                 } else {
                     // new header
-                    if (prevline != null)
-                        addHeaderLine(prevline);
-                    else if (lineBuffer.length() > 0) {
+                    if (hstart >= 0) {
+                        if (lazy)
+                            append(new InternetHeader(block, hstart, hend));
+                        else
+                            addHeaderLine(block.decode(hstart, hend));
+                    } else if (lineBuffer.length() > 0) {
                         // store previous header first
                         addHeaderLine(lineBuffer.toString());
                         lineBuffer.setLength(0);
                     }
-                    prevline = line;
+                    hstart = end >= 0 ? start : -1;
+                    hend = end;
                 }
                 first = false;
-            } while (line != null && !isEmpty(line));
+            } while (end >= 0 && !block.isEmpty(start, end));
         } catch (IOException ioex) {
             throw new MessagingException("Error in input stream", ioex);
+        } finally {
+            block.close();
         }
     }
 
-    /**
-     * Is this line an empty (blank) line?
+    /*
+     * The raw bytes of a header block, read from the stream one line
+     * at a time.  Header lines are kept as ranges of the single backing
+     * array and are only turned into Strings when first needed.
      */
-    private static final boolean isEmpty(String line) {
-        return line.length() == 0 ||
-                (ignoreWhitespaceLines && line.trim().length() == 0);
+    static final class HeaderBlock {
+        private InputStream in;
+        private final Charset charset;
+        private byte[] buf = new byte[1024];
+        private int count;
+        int lineStart;    // start of the line most recently read
+
+        HeaderBlock(InputStream in, boolean utf8) {
+            // bytes read ahead after a lone CR are returned to the stream
+            // with reset, or else are pushed back, just like LineInputStream
+            if (!in.markSupported() && !(in instanceof PushbackInputStream))
+                in = new PushbackInputStream(in, 2);
+            this.in = in;
+            this.charset = utf8 ? StandardCharsets.UTF_8
+                    : StandardCharsets.ISO_8859_1;
+        }
+
+        /*
+         * Read the next line, including its line terminator, which may
+         * be LF, CRLF, CR CR LF or a lone CR.  Return the end of the
+         * line's content, or -1 at end of stream.  The stream is left
+         * positioned just after the line terminator, unless it's a stream
+         * that doesn't support mark and was passed to us; then the bytes
+         * read ahead after a lone CR are only in our PushbackInputStream.
+         */
+        int readLine() throws IOException {
+            int start = lineStart = count;
+            for (int c = in.read(); c >= 0; c = in.read()) {
+                if (c == '\n') {
+                    add(c);
+                    return count - 1;
+                }
+                if (c == '\r') {
+                    int end = count;
+                    add(c);
+                    boolean mark = in.markSupported();
+                    if (mark)
+                        in.mark(2);
+                    int c2 = in.read();
+                    if (c2 == '\n') {
+                        add(c2);
+                        return end;
+                    }
+                    if (c2 == '\r') {
+                        // CR CR LF is a single line terminator
+                        int c3 = in.read();
+                        if (c3 == '\n') {
+                            add(c2);
+                            add(c3);
+                            return end;
+                        }
+                        if (!mark)
+                            unread(c3);
+                    }
+                    if (mark)
+                        in.reset();
+                    else
+                        unread(c2);
+                    return end;
+                }
+                add(c);
+            }
+            return count == start ? -1 : count;
+        }
+
+        private void unread(int c) throws IOException {
+            if (c >= 0)
+                ((PushbackInputStream) in).unread(c);
+        }
+
+        private void add(int c) {
+            if (count == buf.length)
+                buf = Arrays.copyOf(buf, count * 2);
+            buf[count++] = (byte) c;
+        }
+
+        boolean isContinuation(int start) {
+            return buf[start] == ' ' || buf[start] == '\t';
+        }
+
+        /*
+         * Is this line an empty (blank) line?
+         */
+        boolean isEmpty(int start, int end) {
+            if (start == end)
+                return true;
+            if (!ignoreWhitespaceLines)
+                return false;
+            for (int i = start; i < end; i++) {
+                if ((buf[i] & 0xff) > ' ')
+                    return false;
+            }
+            return true;
+        }
+
+        /*
+         * Done reading; drop the stream and any unused buffer space.
+         */
+        void close() {
+            in = null;
+            if (buf.length - count > 256)
+                buf = Arrays.copyOf(buf, count);
+        }
+
+        /*
+         * Return the name of the header in the given range.
+         */
+        String name(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (buf[i] == ':')
+                    return decode(start, i).trim();
+            }
+            // should never happen
+            return decode(start, end).trim();
+        }
+
+        /*
+         * Decode the given range, which may span several lines.
+         * Whatever the original line terminators, the lines of
+         * the result are separated by CRLF.
+         */
+        String decode(int start, int end) {
+            byte[] b = buf;
+            boolean crlf = true;    // are all line terminators CRLF?
+            for (int i = start; i < end && crlf; i++) {
+                if (b[i] == '\r') {
+                    if (i + 1 < end && b[i + 1] == '\n')
+                        i++;
+                    else
+                        crlf = false;
+                } else if (b[i] == '\n') {
+                    crlf = false;
+                }
+            }
+            if (crlf)
+                return new String(b, start, end - start, charset);
+            // each byte becomes at most a CRLF
+            byte[] out = new byte[2 * (end - start)];
+            int n = 0;
+            for (int i = start; i < end; i++) {
+                byte c = b[i];
+                if (c == '\r' || c == '\n') {
+                    out[n++] = '\r';
+                    out[n++] = '\n';
+                    if (c == '\r' && i + 1 < end && b[i + 1] == '\n')
+                        i++;
+                    else if (c == '\r' && i + 2 < end && b[i + 1] == '\r' &&
+                            b[i + 2] == '\n')
+                        i += 2;
+                } else {
+                    out[n++] = c;
+                }
+            }
+            return new String(out, 0, n, charset);
+        }
     }
 
     /**
@@ -477,13 +811,29 @@ public class InternetHeaders {
      * @return array of header values, or null if none
      */
     public String[] getHeader(String name) {
+        Map<String, List<InternetHeader>> byName = index(true);
+        if (byName != null) {
+            List<InternetHeader> named = byName.get(key(name));
+            if (named == null)
+                return null;
+            int n = 0;
+            String[] r = new String[named.size()];
+            for (InternetHeader h : named) {
+                if (h.hasLine())
+                    r[n++] = h.getValue();
+            }
+            if (n == 0)
+                return null;
+            return n == r.length ? r : Arrays.copyOf(r, n);
+        }
+
         Iterator<InternetHeader> e = headers.iterator();
         // XXX - should we just step through in index order?
         List<String> v = new ArrayList<>(); // accumulate return values
 
         while (e.hasNext()) {
             InternetHeader h = e.next();
-            if (name.equalsIgnoreCase(h.getName()) && h.line != null) {
+            if (name.equalsIgnoreCase(h.getName()) && h.hasLine()) {
                 v.add(h.getValue());
             }
         }
@@ -536,19 +886,23 @@ public class InternetHeaders {
      */
     public void setHeader(String name, String value) {
         boolean found = false;
+        InternetHeader first = null;
+        Map<String, List<InternetHeader>> byName = index(false);
 
         for (int i = 0; i < headers.size(); i++) {
             InternetHeader h = headers.get(i);
             if (name.equalsIgnoreCase(h.getName())) {
                 if (!found) {
+                    String line = h.line();
                     int j;
-                    if (h.line != null && (j = h.line.indexOf(':')) >= 0) {
-                        h.line = h.line.substring(0, j + 1) + " " + value;
+                    if (line != null && (j = line.indexOf(':')) >= 0) {
+                        h.setLine(line.substring(0, j + 1) + " " + value);
                         // preserves capitalization, spacing
                     } else {
-                        h.line = name + ": " + value;
+                        h.setLine(name + ": " + value);
                     }
                     found = true;
+                    first = h;
                 } else {
                     headers.remove(i);
                     i--;    // have to look at i again
@@ -558,6 +912,13 @@ public class InternetHeaders {
 
         if (!found) {
             addHeader(name, value);
+        } else if (byName != null) {
+            List<InternetHeader> named = byName.get(key(name));
+            if (named.size() > 1) {
+                named.clear();
+                named.add(first);
+                indexUpdated(byName);
+            }
         }
     }
 
@@ -577,6 +938,7 @@ public class InternetHeaders {
      * @param value header value
      */
     public void addHeader(String name, String value) {
+        Map<String, List<InternetHeader>> byName = index(false);
         int pos = headers.size();
         boolean addReverse =
                 name.equalsIgnoreCase("Received") ||
@@ -589,7 +951,13 @@ public class InternetHeaders {
                 if (addReverse) {
                     pos = i;
                 } else {
-                    headers.add(i + 1, new InternetHeader(name, value));
+                    InternetHeader nh = new InternetHeader(name, value);
+                    headers.add(i + 1, nh);
+                    if (byName != null) {
+                        // after the last header with this name
+                        byName.get(key(name)).add(nh);
+                        indexUpdated(byName);
+                    }
                     return;
                 }
             }
@@ -597,7 +965,14 @@ public class InternetHeaders {
             if (!addReverse && h.getName().equals(":"))
                 pos = i;
         }
-        headers.add(pos, new InternetHeader(name, value));
+        InternetHeader nh = new InternetHeader(name, value);
+        headers.add(pos, nh);
+        if (byName != null) {
+            // before the first header with this name, if any
+            byName.computeIfAbsent(key(name), k -> new ArrayList<>(2))
+                    .add(0, nh);
+            indexUpdated(byName);
+        }
     }
 
     /**
@@ -609,7 +984,7 @@ public class InternetHeaders {
         for (int i = 0; i < headers.size(); i++) {
             InternetHeader h = headers.get(i);
             if (name.equalsIgnoreCase(h.getName())) {
-                h.line = null;
+                h.setLine(null);
                 //headers.remove(i);
                 //i--;    // have to look at i again
             }
@@ -662,10 +1037,11 @@ public class InternetHeaders {
             if (c == ' ' || c == '\t') {
                 if (!headers.isEmpty()) {
                     InternetHeader h = headers.get(headers.size() - 1);
-                    h.line += "\r\n" + line;
+                    h.setLine(h.line() + "\r\n" + line);
                 }
-            } else
-                headers.add(new InternetHeader(line));
+            } else {
+                append(new InternetHeader(line));
+            }
         } catch (StringIndexOutOfBoundsException e) {
             // line is empty, ignore it
             return;
@@ -674,6 +1050,19 @@ public class InternetHeaders {
         }
     }
 
+    /*
+     * Append a new header to the end of the list.
+     */
+    private void append(InternetHeader h) {
+        Map<String, List<InternetHeader>> byName = index(false);
+        headers.add(h);
+        if (byName != null) {
+            byName.computeIfAbsent(key(h.getName()),
+                    k -> new ArrayList<>(2)).add(h);
+            indexUpdated(byName);
+        }
+    }
+
     /**
      * Return all the header lines as an Enumeration of Strings.
      *
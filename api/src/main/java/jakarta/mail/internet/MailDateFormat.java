@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2023 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -25,8 +25,12 @@ import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Locale;
 import java.util.TimeZone;
 import java.util.logging.Level;
@@ -115,7 +119,9 @@ import java.util.logging.Logger;
  * Date formats are not synchronized.
  * It is recommended to create separate format instances for each thread.
  * If multiple threads access a format concurrently, it must be synchronized
- * externally.
+ * externally. The parsing rules themselves keep no state in the format
+ * instance, which allows {@link MimeMessage} to share them between threads
+ * without locking.
  *
  * @author Anthony Vanelverdinghe
  * @author Max Spivak
@@ -132,6 +138,20 @@ public class MailDateFormat extends SimpleDateFormat {
     private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
     private static final int LEAP_SECOND = 60;
 
+    // first year that is entirely on the Gregorian side of the default
+    // GregorianCalendar cutover; earlier dates are left to GregorianCalendar
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
+    private static final long GREGORIAN_CUTOVER =
+            new GregorianCalendar().getGregorianChange().getTime();
+
+    private static final String[] DAY_NAMES = {
+        "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"
+    };
+    private static final String[] MONTH_NAMES = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun",
+        "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
     /**
      * Create a new date format for the RFC2822 specification with lenient
      * parsing.
@@ -226,6 +246,74 @@ public class MailDateFormat extends SimpleDateFormat {
                 : new Rfc2822StrictParser(text, pos).parse();
     }
 
+    /**
+     * Parses the given date with the rules of a lenient
+     * <code>MailDateFormat</code>, as {@link #parse(String)} would.
+     * Unlike the instance methods, this method is thread safe.
+     *
+     * @param text the formatted date to be parsed
+     * @return the parsed date
+     * @throws ParseException if the date can not be parsed
+     */
+    static Date parseDate(String text) throws ParseException {
+        ParsePosition pos = new ParsePosition(0);
+        Date date = text.isEmpty()
+                ? null : new Rfc2822LenientParser(text, pos).parse();
+        if (pos.getIndex() == 0) {
+            throw new ParseException("Unparseable date: \"" + text + "\"",
+                    pos.getErrorIndex());
+        }
+        return date;
+    }
+
+    /**
+     * Formats the given date in the default time zone, producing the same
+     * text as {@link #format(Date)} of a new <code>MailDateFormat</code>.
+     * Unlike the instance methods, this method is thread safe.
+     *
+     * @param date the Date object
+     * @return the formatted date
+     */
+    static String formatDate(Date date) {
+        TimeZone tz = TimeZone.getDefault();
+        long time = date.getTime();
+        if (time < GREGORIAN_CUTOVER) {
+            MailDateFormat fmt = new MailDateFormat();
+            fmt.setTimeZone(tz);
+            return fmt.format(date);
+        }
+
+        int offset = tz.getOffset(time);
+        LocalDateTime t = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(time + offset, 1000L), 0, ZoneOffset.UTC);
+        int offsetMinutes = offset / 60000;
+        StringBuilder sb = new StringBuilder(40);
+        sb.append(DAY_NAMES[t.getDayOfWeek().getValue() - 1]).append(", ");
+        sb.append(t.getDayOfMonth()).append(' ');
+        sb.append(MONTH_NAMES[t.getMonthValue() - 1]).append(' ');
+        appendDigits(sb, t.getYear(), 4).append(' ');
+        appendDigits(sb, t.getHour(), 2).append(':');
+        appendDigits(sb, t.getMinute(), 2).append(':');
+        appendDigits(sb, t.getSecond(), 2).append(' ');
+        sb.append(offsetMinutes < 0 ? '-' : '+');
+        offsetMinutes = Math.abs(offsetMinutes);
+        appendDigits(sb, offsetMinutes / 60, 2);
+        appendDigits(sb, offsetMinutes % 60, 2);
+        sb.append(" (");
+        sb.append(tz.getDisplayName(tz.inDaylightTime(date), TimeZone.SHORT,
+                Locale.US));
+        return sb.append(')').toString();
+    }
+
+    private static StringBuilder appendDigits(StringBuilder sb, int value,
+                                              int minDigits) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < minDigits; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits);
+    }
+
     /**
      * This method always throws an UnsupportedOperationException and should not
      * be used because RFC 2822 mandates a specific calendar.
@@ -327,25 +415,27 @@ public class MailDateFormat extends SimpleDateFormat {
     }
 
     /**
-     * Returns the date, as specified by the parameters.
+     * Returns the date, as specified by the parameters. The fields are
+     * interpreted in UTC, like a GregorianCalendar with the given leniency
+     * would.
      *
      * @return the date, as specified by the parameters
-     * @throws IllegalArgumentException if this instance's Calendar is
-     *                                     non-lenient and any of the parameters have invalid values, or if dayName
+     * @throws IllegalArgumentException if lenient is false and any of the
+     *                                     parameters have invalid values, or if dayName
      *                                     is not consistent with day-month-year
      */
-    private Date toDate(int dayName, int day, int month, int year,
-                        int hour, int minute, int second, int zone) {
+    private static Date toDate(boolean lenient, int dayName, int day,
+                               int month, int year, int hour, int minute,
+                               int second, int zone) {
         if (second == LEAP_SECOND) {
             second = 59;
         }
 
-        TimeZone tz = calendar.getTimeZone();
-        try {
-            calendar.setTimeZone(UTC);
+        if (year < FIRST_GREGORIAN_YEAR) {
+            Calendar calendar = new GregorianCalendar(UTC, Locale.US);
+            calendar.setLenient(lenient);
             calendar.clear();
             calendar.set(year, month, day, hour, minute, second);
-
             if (dayName == UNKNOWN_DAY_NAME
                     || dayName == calendar.get(Calendar.DAY_OF_WEEK)) {
                 calendar.add(Calendar.MINUTE, zone);
@@ -353,9 +443,26 @@ public class MailDateFormat extends SimpleDateFormat {
             } else {
                 throw new IllegalArgumentException("Inconsistent day-name");
             }
-        } finally {
-            calendar.setTimeZone(tz);
         }
+
+        LocalDate firstOfMonth = LocalDate.of(year, month + 1, 1);
+        if (!lenient && (day < 1 || day > firstOfMonth.lengthOfMonth()
+                || hour > 23 || minute > 59 || second > 59)) {
+            throw new IllegalArgumentException("Invalid date-time field");
+        }
+
+        LocalDateTime t = firstOfMonth.atStartOfDay()
+                .plusDays(day - 1L)
+                .plusHours(hour)
+                .plusMinutes(minute)
+                .plusSeconds(second);
+        // java.time numbers days from Monday = 1, Calendar from Sunday = 1
+        if (dayName != UNKNOWN_DAY_NAME
+                && dayName != t.getDayOfWeek().getValue() % 7 + 1) {
+            throw new IllegalArgumentException("Inconsistent day-name");
+        }
+        return new Date(t.plusMinutes(zone)
+                .toEpochSecond(ZoneOffset.UTC) * 1000L);
     }
 
     /**
@@ -764,7 +871,7 @@ public class MailDateFormat extends SimpleDateFormat {
 
     }
 
-    private class Rfc2822StrictParser extends AbstractDateParser {
+    private static class Rfc2822StrictParser extends AbstractDateParser {
 
         Rfc2822StrictParser(String text, ParsePosition pos) {
             super(text, pos);
@@ -790,7 +897,7 @@ public class MailDateFormat extends SimpleDateFormat {
             int zone = parseZone();
 
             try {
-                return MailDateFormat.this.toDate(dayName, day, month, year,
+                return toDate(isCalendarLenient(), dayName, day, month, year,
                         hour, minute, second, zone);
             } catch (IllegalArgumentException e) {
                 throw new ParseException("Invalid input: some of the calendar "
@@ -838,6 +945,10 @@ public class MailDateFormat extends SimpleDateFormat {
             return true;
         }
 
+        boolean isCalendarLenient() {
+            return false;
+        }
+
         int parseYear() throws ParseException {
             int year = parseAsciiDigits(4, MAX_YEAR_DIGITS);
             if (year >= 1900) {
@@ -873,7 +984,7 @@ public class MailDateFormat extends SimpleDateFormat {
 
     }
 
-    private class Rfc2822LenientParser extends Rfc2822StrictParser {
+    private static class Rfc2822LenientParser extends Rfc2822StrictParser {
 
         private Boolean hasDefaultFws;
 
@@ -915,6 +1026,11 @@ public class MailDateFormat extends SimpleDateFormat {
             return false;
         }
 
+        @Override
+        boolean isCalendarLenient() {
+            return true;
+        }
+
         @Override
         int parseYear() throws ParseException {
             int year = parseAsciiDigits(1, MAX_YEAR_DIGITS);
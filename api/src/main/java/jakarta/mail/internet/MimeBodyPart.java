@@ -170,7 +170,12 @@ public class MimeBodyPart extends BodyPart implements MimePart {
      * <strong>not</strong> be included in the input stream. The intention
      * is that the MimeMultipart parser will extract each body part's bytes
      * from a multipart stream and feed them into this constructor, without
-     * the delimiter strings.
+     * the delimiter strings. <p>
+     *
+     * If the <code>mail.mime.buffer.threshold</code> System property is set
+     * and the input stream is not a <code>SharedInputStream</code>, content
+     * larger than the threshold is copied to a temporary file rather than
+     * kept in memory.
      *
      * @param is the body part Input Stream
      * @throws MessagingException for failures
@@ -188,7 +193,9 @@ public class MimeBodyPart extends BodyPart implements MimePart {
             contentStream = sis.newStream(sis.getPosition(), -1);
         } else {
             try {
-                content = MimeUtility.getBytes(is);
+                BodyBuffer body = BodyBuffer.read(is, BodyBuffer.systemThreshold);
+                content = body.content;
+                contentStream = body.contentStream;
             } catch (IOException ioex) {
                 throw new MessagingException("Error reading input stream", ioex);
             }
@@ -697,7 +704,7 @@ public class MimeBodyPart extends BodyPart implements MimePart {
              * the MimeMultipart has consumed the stream.
              */
             if (c instanceof MimeMultipart)
-                ((MimeMultipart) c).parse();
+                ((MimeMultipart) c).parseSource();
         }
         return c;
     }
@@ -1026,6 +1033,7 @@ public class MimeBodyPart extends BodyPart implements MimePart {
     public void setHeader(String name, String value)
             throws MessagingException {
         headers.setHeader(name, value);
+        headerChanged(name);
     }
 
     /**
@@ -1042,6 +1050,7 @@ public class MimeBodyPart extends BodyPart implements MimePart {
     public void addHeader(String name, String value)
             throws MessagingException {
         headers.addHeader(name, value);
+        headerChanged(name);
     }
 
     /**
@@ -1050,6 +1059,7 @@ public class MimeBodyPart extends BodyPart implements MimePart {
     @Override
     public void removeHeader(String name) throws MessagingException {
         headers.removeHeader(name);
+        headerChanged(name);
     }
 
     /**
@@ -1087,6 +1097,18 @@ public class MimeBodyPart extends BodyPart implements MimePart {
     @Override
     public void addHeaderLine(String line) throws MessagingException {
         headers.addHeaderLine(line);
+        headerChanged(null);
+    }
+
+    /**
+     * Tell the parent MimeMultipart if the Content-ID may have changed,
+     * so that it doesn't find this part by a stale Content-ID.
+     * A null name means any header may have changed.
+     */
+    private void headerChanged(String name) {
+        if (parent instanceof MimeMultipart &&
+                (name == null || name.equalsIgnoreCase("Content-ID")))
+            ((MimeMultipart) parent).contentIDChanged();
     }
 
     /**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2025 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -68,7 +68,12 @@ import java.util.Properties;
  * of address headers is done. If this property is set to <code>"false"</code>,
  * strict parsing is not done and many illegal addresses that sometimes
  * occur in real messages are allowed.  See the <code>InternetAddress</code>
- * class for details.
+ * class for details. <p>
+ *
+ * If the <code>mail.mime.lazybody</code> session or system property is
+ * set to <code>"true"</code>, a message parsed from a stream that isn't a
+ * <code>SharedInputStream</code> reads only the headers; the body is read
+ * from the stream the first time it's needed.
  *
  * <hr><strong>A note on RFC 822 and MIME headers</strong><p>
  *
@@ -169,13 +174,16 @@ public class MimeMessage extends Message implements MimePart {
      */
     protected Object cachedContent;
 
-    // Used to parse dates
-    private static final MailDateFormat mailDateFormat = new MailDateFormat();
-
     // Should addresses in headers be parsed in "strict" mode?
     private boolean strict = true;
     // Is UTF-8 allowed in headers?
     private boolean allowutf8 = false;
+    // Should parse leave the body unread until it's needed?
+    private boolean lazybody = false;
+    // the unread body of a message parsed with mail.mime.lazybody set
+    private InputStream bodyStream;
+    // largest body to keep in memory, or -1 for no limit
+    private long bufferThreshold = -1;
 
     /**
      * Default constructor. An empty message object is created.
@@ -199,6 +207,10 @@ public class MimeMessage extends Message implements MimePart {
      * at the end of the data for the message. Note that the input stream
      * parse is done within this constructor itself. <p>
      *
+     * If the <code>mail.mime.lazybody</code> property is set, the
+     * InputStream is instead left positioned at the start of the body,
+     * which is read when it's first needed. <p>
+     *
      * The input stream contains an entire MIME formatted message with
      * headers and data.
      *
@@ -241,6 +253,8 @@ public class MimeMessage extends Message implements MimePart {
         try {
             strict = source.strict;
             allowutf8 = source.allowutf8;
+            lazybody = source.lazybody;
+            bufferThreshold = source.bufferThreshold;
             source.writeTo(bos);
             bos.close();
             try (InputStream bis = getStreamProvider().inputSharedByteArray(bos.toByteArray())) {
@@ -317,6 +331,8 @@ public class MimeMessage extends Message implements MimePart {
         Properties props = session != null ? session.getProperties() : System.getProperties();
         strict = MimeUtility.getBooleanProperty(props, "mail.mime.address.strict", true);
         allowutf8 = MimeUtility.getBooleanProperty(props, "mail.mime.allowutf8", false);
+        lazybody = MimeUtility.getBooleanProperty(props, "mail.mime.lazybody", false);
+        bufferThreshold = BodyBuffer.threshold(props);
     }
 
     /**
@@ -325,7 +341,14 @@ public class MimeMessage extends Message implements MimePart {
      * <code>modified</code> flag. <p>
      *
      * This method is intended for use by subclasses that need to
-     * control when the InputStream is parsed.
+     * control when the InputStream is parsed. <p>
+     *
+     * If the <code>mail.mime.lazybody</code> property is set and the
+     * stream is not a <code>SharedInputStream</code>, only the headers
+     * are read.  The stream is left positioned at the start of the body,
+     * which is read into the <code>content</code> array when it's first
+     * needed, so the stream must not be closed or used for anything
+     * else until then.
      *
      * @param is The message input stream
      * @throws MessagingException for failures
@@ -338,21 +361,46 @@ public class MimeMessage extends Message implements MimePart {
             is = new BufferedInputStream(is);
 
         headers = createInternetHeaders(is);
+        bodyStream = null;
 
         if (is instanceof SharedInputStream) {
             SharedInputStream sis = (SharedInputStream) is;
             contentStream = sis.newStream(sis.getPosition(), -1);
+        } else if (lazybody) {
+            content = null;
+            bodyStream = is;
         } else {
-            try {
-                content = MimeUtility.getBytes(is);
-            } catch (IOException ioex) {
-                throw new MessagingException("IOException", ioex);
-            }
+            readBody(is);
         }
 
         modified = false;
     }
 
+    /*
+     * Read the body left unread by parse.
+     */
+    private synchronized void loadBody() throws MessagingException {
+        if (bodyStream == null)
+            return;
+        readBody(bodyStream);
+        bodyStream = null;
+    }
+
+    /*
+     * Read the rest of the stream into the content array, or into
+     * a temporary file used as the contentStream if it's larger
+     * than the mail.mime.buffer.threshold property allows.
+     */
+    private void readBody(InputStream is) throws MessagingException {
+        try {
+            BodyBuffer body = BodyBuffer.read(is, bufferThreshold);
+            content = body.content;
+            contentStream = body.contentStream;
+        } catch (IOException ioex) {
+            throw new MessagingException("IOException", ioex);
+        }
+    }
+
     /**
      * Returns the value of the RFC 822 "From" header fields. If this
      * header field is absent, the "Sender" header field is used.
@@ -898,9 +946,7 @@ public class MimeMessage extends Message implements MimePart {
         String s = getHeader("Date", null);
         if (s != null) {
             try {
-                synchronized (mailDateFormat) {
-                    return mailDateFormat.parse(s);
-                }
+                return MailDateFormat.parseDate(s);
             } catch (ParseException pex) {
                 return null;
             }
@@ -926,9 +972,7 @@ public class MimeMessage extends Message implements MimePart {
         if (d == null)
             removeHeader("Date");
         else {
-            synchronized (mailDateFormat) {
-                setHeader("Date", mailDateFormat.format(d));
-            }
+            setHeader("Date", MailDateFormat.formatDate(d));
         }
     }
 
@@ -962,13 +1006,17 @@ public class MimeMessage extends Message implements MimePart {
      * array (if not null), or, if <code>contentStream</code> is not
      * null, and the <code>available</code> method returns a positive
      * number, it returns that number as the size.  Otherwise, it returns
-     * -1.
+     * -1.  The size of a body that hasn't yet been read because the
+     * <code>mail.mime.lazybody</code> property is set is not known,
+     * and -1 is returned.
      *
      * @return size of content in bytes
      * @throws MessagingException for failures
      */
     @Override
     public int getSize() throws MessagingException {
+        if (bodyStream != null)
+            return -1;
         if (content != null)
             return content.length;
         if (contentStream != null) {
@@ -1403,6 +1451,7 @@ public class MimeMessage extends Message implements MimePart {
      * @see #content
      */
     protected InputStream getContentStream() throws MessagingException {
+        loadBody();
         if (contentStream != null)
             return ((SharedInputStream) contentStream).newStream(0, -1);
         if (content != null) {
@@ -1517,7 +1566,7 @@ public class MimeMessage extends Message implements MimePart {
              * the MimeMultipart has consumed the stream.
              */
             if (c instanceof MimeMultipart)
-                ((MimeMultipart) c).parse();
+                ((MimeMultipart) c).parseSource();
         }
         return c;
     }
@@ -1921,6 +1970,7 @@ public class MimeMessage extends Message implements MimePart {
         los.writeln();
 
         // Finally, the content.
+        loadBody();
         if (content == null) {
             // call getContentStream to give subclass a chance to
             // provide the data on demand
@@ -2275,6 +2325,7 @@ public class MimeMessage extends Message implements MimePart {
             dh = new DataHandler(cachedContent, getContentType());
             cachedContent = null;
             content = null;
+            bodyStream = null;
             if (contentStream != null) {
                 try {
                     contentStream.close();
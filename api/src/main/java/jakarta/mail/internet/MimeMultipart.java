@@ -24,16 +24,24 @@ import jakarta.mail.MessageContext;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Multipart;
 import jakarta.mail.MultipartDataSource;
-import jakarta.mail.util.LineInputStream;
 import jakarta.mail.util.LineOutputStream;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
@@ -92,7 +100,23 @@ import java.io.OutputStream;
  * <code>true</code> to override this behavior.
  * When writing out such a MimeMultipart, a single empty part will be
  * included.  When reading such a multipart, a MimeMultipart will be created
- * with no body parts.
+ * with no body parts. <p>
+ *
+ * The <code>mail.mime.multipart.incremental</code> System property may
+ * be set to <code>true</code> to parse only as many body parts as have
+ * been asked for, e.g., by <code>getBodyPart(int)</code>; the rest of the
+ * parts are parsed when they're needed.  Until all the parts have been
+ * parsed, the stream from the DataSource is kept open. <p>
+ *
+ * The <code>mail.mime.multipart.parallelwrite</code> System property may
+ * be set to <code>true</code> to have <code>writeTo</code> encode the
+ * body parts concurrently, and then write them out in order.  The parts
+ * are encoded by the Executor set with {@link #setWriteExecutor
+ * setWriteExecutor}, or by a shared pool with a thread per processor,
+ * and only a few parts are encoded ahead of the one being written.
+ * Each encoded part is held in memory, or in a temporary file if it's
+ * larger than the <code>mail.mime.buffer.threshold</code> System property
+ * (one megabyte if that property isn't set).
  *
  * @author John Mani
  * @author Bill Shannon
@@ -167,6 +191,55 @@ public class MimeMultipart extends Multipart {
      */
     protected boolean allowEmpty = false;
 
+    // the size of the buffer used to search for boundaries
+    private static final int MIN_BUFFER = 8192;
+    private static final int MAX_BUFFER = 64 * 1024;
+
+    // parse only as many body parts as are needed?
+    private boolean incremental = false;
+
+    // the Executor that encodes the body parts, when writing concurrently
+    private Executor writeExecutor;
+
+    // the most body parts encoded ahead of the one being written
+    static final int WRITE_AHEAD =
+            Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // the largest encoded body part kept in memory, unless set otherwise
+    private static final long WRITE_THRESHOLD = 1024 * 1024;
+
+    // set while a body part is encoded for writeParts
+    private static final ThreadLocal<Boolean> encodingPart =
+            new ThreadLocal<>();
+
+    // the pool used if no Executor is set
+    private static final class WritePool {
+        static final ExecutorService pool = Executors.newFixedThreadPool(
+                WRITE_AHEAD, r -> {
+                    Thread t = new Thread(r, "MimeMultipart writer");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /*
+     * The stream being parsed, when parsing incrementally,
+     * and the boundary that separates the parts.
+     */
+    private static final class ParseState {
+        InputStream in;
+        SharedInputStream sin;
+        long base;    // position of the start of the input in sin
+        BoundaryInput input;
+        Boundary bnd;
+    }
+
+    private ParseState parseState;
+
+    // the first body part with each Content-ID, for getBodyPart(String)
+    private Map<String, BodyPart> cids;
+    private int cidCount;    // the number of parts in cids
+
     /**
      * Default constructor. An empty MimeMultipart object
      * is created. Its content type is set to "multipart/mixed".
@@ -272,6 +345,8 @@ public class MimeMultipart extends Multipart {
         parsed = false;
         this.ds = ds;
         contentType = ds.getContentType();
+        incremental = MimeUtility.getBooleanSystemProperty(
+                "mail.mime.multipart.incremental", false);
     }
 
     /**
@@ -334,7 +409,10 @@ public class MimeMultipart extends Multipart {
     @Override
     public synchronized BodyPart getBodyPart(int index)
             throws MessagingException {
-        parse();
+        if (incremental)
+            parseParts(index + 1);
+        else
+            parse();
         return super.getBodyPart(index);
     }
 
@@ -342,22 +420,47 @@ public class MimeMultipart extends Multipart {
      * Get the MimeBodyPart referred to by the given ContentID (CID).
      * Returns null if the part is not found.
      *
+     * The parts are indexed by ContentID as they're searched, so
+     * later calls can find a part without searching again.
+     *
      * @param CID the ContentID of the desired part
      * @return the Part
      * @throws MessagingException for failures
      */
     public synchronized BodyPart getBodyPart(String CID)
             throws MessagingException {
-        parse();
-
-        int count = getCount();
-        for (int i = 0; i < count; i++) {
-            MimeBodyPart part = (MimeBodyPart) getBodyPart(i);
-            String s = part.getContentID();
-            if (s != null && s.equals(CID))
-                return part;
+        // index the parts by Content-ID, parsing them as needed
+        if (incremental)
+            parseParts(0);
+        else
+            parse();
+        if (cids == null || cidCount > parts.size()) {
+            cids = new HashMap<>();
+            cidCount = 0;
+        }
+        for (;;) {
+            BodyPart bp = cids.get(CID);
+            if (bp != null)
+                return bp;
+            if (cidCount < parts.size()) {
+                bp = parts.elementAt(cidCount++);
+                String s = ((MimeBodyPart) bp).getContentID();
+                if (s != null)
+                    cids.putIfAbsent(s, bp);
+            } else if (!parsed) {
+                parseParts(parts.size() + 1);
+            } else {
+                return null;
+            }
         }
-        return null;
+    }
+
+    /**
+     * Called by a MimeBodyPart in this multipart when its Content-ID
+     * may have changed, so that the index is rebuilt.
+     */
+    synchronized void contentIDChanged() {
+        cids = null;
     }
 
     /**
@@ -374,6 +477,7 @@ public class MimeMultipart extends Multipart {
     @Override
     public boolean removeBodyPart(BodyPart part) throws MessagingException {
         parse();
+        cids = null;
         return super.removeBodyPart(part);
     }
 
@@ -392,6 +496,7 @@ public class MimeMultipart extends Multipart {
     @Override
     public void removeBodyPart(int index) throws MessagingException {
         parse();
+        cids = null;
         super.removeBodyPart(index);
     }
 
@@ -430,6 +535,8 @@ public class MimeMultipart extends Multipart {
     public synchronized void addBodyPart(BodyPart part, int index)
             throws MessagingException {
         parse();
+        if (index < parts.size())
+            cids = null;
         super.addBodyPart(part, index);
     }
 
@@ -484,6 +591,21 @@ public class MimeMultipart extends Multipart {
         this.preamble = preamble;
     }
 
+    /**
+     * Set the Executor used to encode the body parts concurrently when
+     * the <code>mail.mime.multipart.parallelwrite</code> System property
+     * is set.  If null, the default, a shared pool of daemon threads,
+     * one per available processor, is used.  Body parts are never encoded
+     * concurrently by the Executor's own threads, so the Executor may
+     * have any number of threads.
+     *
+     * @param executor the Executor, or null for the shared pool
+     * @since JavaMail 2.2
+     */
+    public synchronized void setWriteExecutor(Executor executor) {
+        this.writeExecutor = executor;
+    }
+
     /**
      * Update headers. The default implementation here just
      * calls the <code>updateHeaders</code> method on each of its
@@ -541,6 +663,10 @@ public class MimeMultipart extends Multipart {
             } else {
                 throw new MessagingException("Empty multipart: " + contentType);
             }
+        } else if (parts.size() > 1 && encodingPart.get() == null &&
+                MimeUtility.getBooleanSystemProperty(
+                        "mail.mime.multipart.parallelwrite", false)) {
+            writeParts(os, los, boundary);
         } else {
             for (int i = 0; i < parts.size(); i++) {
                 los.writeln(boundary); // put out boundary
@@ -553,6 +679,95 @@ public class MimeMultipart extends Multipart {
         los.writeln(boundary + "--");
     }
 
+    /**
+     * Encode the body parts concurrently, no more than WRITE_AHEAD
+     * of them ahead of the one being written, and write them out in
+     * order as each one is done.  Multiparts nested in the body parts
+     * encode their own body parts one at a time, so the Executor never
+     * waits on itself.
+     */
+    private void writeParts(OutputStream os, LineOutputStream los,
+                            String boundary)
+            throws IOException, MessagingException {
+        int n = parts.size();
+        Executor executor = writeExecutor != null ?
+                writeExecutor : WritePool.pool;
+        long threshold = BodyBuffer.systemThreshold >= 0 ?
+                BodyBuffer.systemThreshold : WRITE_THRESHOLD;
+        List<BodyBuffer.Output> bufs = new ArrayList<>(n);
+        List<FutureTask<Void>> tasks = new ArrayList<>(n);
+        AtomicBoolean abort = new AtomicBoolean();
+        try {
+            for (int i = 0; i < n; i++) {
+                while (tasks.size() < n && tasks.size() < i + WRITE_AHEAD) {
+                    BodyPart part = parts.elementAt(tasks.size());
+                    BodyBuffer.Output buf = new BodyBuffer.Output(threshold);
+                    bufs.add(buf);
+                    FutureTask<Void> task = new FutureTask<>(() -> {
+                        if (!abort.get()) {
+                            encodingPart.set(Boolean.TRUE);
+                            try {
+                                part.writeTo(buf);
+                            } finally {
+                                encodingPart.remove();
+                            }
+                        }
+                        return null;
+                    });
+                    tasks.add(task);
+                    try {
+                        executor.execute(task);
+                    } catch (RejectedExecutionException ex) {
+                        task.run();
+                    }
+                }
+                try {
+                    tasks.get(i).get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException(
+                            "interrupted writing multipart");
+                } catch (ExecutionException ex) {
+                    Throwable t = ex.getCause();
+                    if (t instanceof IOException)
+                        throw (IOException) t;
+                    if (t instanceof MessagingException)
+                        throw (MessagingException) t;
+                    if (t instanceof RuntimeException)
+                        throw (RuntimeException) t;
+                    if (t instanceof Error)
+                        throw (Error) t;
+                    throw new MessagingException("Can't write body part",
+                            (Exception) t);
+                }
+                los.writeln(boundary); // put out boundary
+                bufs.get(i).copyTo(os);
+                bufs.get(i).discard();
+                los.writeln(); // put out empty line
+            }
+        } finally {
+            // skip the parts not yet started, and wait for the rest
+            // before removing their temporary files
+            abort.set(true);
+            boolean interrupted = false;
+            for (FutureTask<Void> task : tasks) {
+                while (!task.isDone()) {
+                    try {
+                        task.get();
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    } catch (ExecutionException ex) {
+                        // reported above, or after an earlier failure
+                    }
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+            for (BodyBuffer.Output buf : bufs)
+                buf.discard();
+        }
+    }
+
     /**
      * Parse the InputStream from our DataSource, constructing the
      * appropriate MimeBodyParts.  The <code>parsed</code> flag is
@@ -570,23 +785,90 @@ public class MimeMultipart extends Multipart {
         if (parsed)
             return;
 
-        initializeProperties();
+        parseParts(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parse body parts until there are at least <code>count</code> of
+     * them, or all the parts have been parsed.  Unless parsing
+     * incrementally, all the parts are parsed at once.  Otherwise
+     * the stream is kept open to parse the rest of the parts later.
+     */
+    private void parseParts(int count) throws MessagingException {
+        if (parsed)
+            return;
+        boolean done = false, ok = false;
+        try {
+            if (parseState == null && startParse() == null) {
+                done = true;    // no parts
+            } else {
+                if (!incremental)
+                    count = Integer.MAX_VALUE;
+                while (!done && parts.size() < count)
+                    done = !parseNextPart(parseState);
+            }
+            ok = true;
+        } catch (IOException ioex) {
+            throw new MessagingException("IO Error", ioex);
+        } finally {
+            // close the stream on failure, or once all parts are parsed
+            if (done || !ok)
+                endParse();
+        }
+        if (done)
+            parsed = true;
+    }
 
-        InputStream in = null;
-        SharedInputStream sin = null;
-        long start = 0, end = 0;
+    /*
+     * The source of our data may be abandoned once this returns, so make
+     * sure the stream has been consumed, unless it's a SharedInputStream
+     * that the rest of the parts can still be parsed from later.
+     */
+    synchronized void parseSource() throws MessagingException {
+        if (incremental)
+            parseParts(0);
+        if (parseState == null || parseState.sin == null)
+            parse();
+    }
 
+    /*
+     * Close the stream being parsed.
+     */
+    private void endParse() {
+        ParseState ps = parseState;
+        parseState = null;
+        if (ps != null) {
+            try {
+                ps.in.close();
+            } catch (IOException cex) {
+                // ignore
+            }
+        }
+    }
+
+    /*
+     * Open the stream, find the boundary, and skip and save the preamble.
+     * Return the state of the parse, or null if there are no parts.
+     */
+    private ParseState startParse() throws IOException, MessagingException {
+        initializeProperties();
+
+        InputStream in;
         try {
             in = ds.getInputStream();
-            if (!(in instanceof ByteArrayInputStream) &&
-                    !(in instanceof BufferedInputStream) &&
-                    !(in instanceof SharedInputStream))
-                in = new BufferedInputStream(in);
         } catch (Exception ex) {
             throw new MessagingException("No inputstream from datasource", ex);
         }
-        if (in instanceof SharedInputStream)
-            sin = (SharedInputStream) in;
+        ParseState ps = parseState = new ParseState();
+        ps.in = in;
+        if (in instanceof SharedInputStream) {
+            ps.sin = (SharedInputStream) in;
+            ps.base = ps.sin.getPosition();
+        }
+        // read the stream in large blocks, but no larger than it needs
+        int size = Math.min(Math.max(in.available() + 1, MIN_BUFFER),
+                MAX_BUFFER);
+        BoundaryInput input = ps.input = new BoundaryInput(in, size);
 
         ContentType cType = new ContentType(contentType);
         String boundary = null;
@@ -599,303 +881,140 @@ public class MimeMultipart extends Multipart {
                 !ignoreExistingBoundaryParameter)
             throw new ParseException("Missing boundary parameter");
 
-        try {
-            // Skip and save the preamble
-            LineInputStream lin = getStreamProvider().inputLineStream(in, false);
-            StringBuilder preamblesb = null;
-            String line;
-            while ((line = lin.readLine()) != null) {
+        // Skip and save the preamble
+        StringBuilder preamblesb = null;
+        String line;
+        while ((line = input.readLine()) != null) {
+            /*
+             * Strip trailing whitespace.  Can't use trim method
+             * because it's too aggressive.  Some bogus MIME
+             * messages will include control characters in the
+             * boundary string.
+             */
+            int i;
+            for (i = line.length() - 1; i >= 0; i--) {
+                char c = line.charAt(i);
+                if (!(c == ' ' || c == '\t'))
+                    break;
+            }
+            line = line.substring(0, i + 1);
+            if (boundary != null) {
+                if (line.equals(boundary))
+                    break;
+                if (line.length() == boundary.length() + 2 &&
+                        line.startsWith(boundary) && line.endsWith("--")) {
+                    line = null;    // signal end of multipart
+                    break;
+                }
+            } else {
                 /*
-                 * Strip trailing whitespace.  Can't use trim method
-                 * because it's too aggressive.  Some bogus MIME
-                 * messages will include control characters in the
-                 * boundary string.
+                 * Boundary hasn't been defined, does this line
+                 * look like a boundary?  If so, assume it is
+                 * the boundary and save it.
                  */
-                int i;
-                for (i = line.length() - 1; i >= 0; i--) {
-                    char c = line.charAt(i);
-                    if (!(c == ' ' || c == '\t'))
-                        break;
-                }
-                line = line.substring(0, i + 1);
-                if (boundary != null) {
-                    if (line.equals(boundary))
-                        break;
-                    if (line.length() == boundary.length() + 2 &&
-                            line.startsWith(boundary) && line.endsWith("--")) {
-                        line = null;    // signal end of multipart
+                if (line.length() > 2 && line.startsWith("--")) {
+                    if (line.length() > 4 && allDashes(line)) {
+                        /*
+                         * The first boundary-like line we find is
+                         * probably *not* the end-of-multipart boundary
+                         * line.  More likely it's a line full of dashes
+                         * in the preamble text.  Just keep reading.
+                         */
+                    } else {
+                        boundary = line;
                         break;
                     }
-                } else {
-                    /*
-                     * Boundary hasn't been defined, does this line
-                     * look like a boundary?  If so, assume it is
-                     * the boundary and save it.
-                     */
-                    if (line.length() > 2 && line.startsWith("--")) {
-                        if (line.length() > 4 && allDashes(line)) {
-                            /*
-                             * The first boundary-like line we find is
-                             * probably *not* the end-of-multipart boundary
-                             * line.  More likely it's a line full of dashes
-                             * in the preamble text.  Just keep reading.
-                             */
-                        } else {
-                            boundary = line;
-                            break;
-                        }
-                    }
-                }
-
-                // save the preamble after skipping blank lines
-                if (line.length() > 0) {
-                    // accumulate the preamble
-                    if (preamblesb == null)
-                        preamblesb = new StringBuilder(line.length() + 2);
-                    preamblesb.append(line).append(System.lineSeparator());
                 }
             }
 
-            if (preamblesb != null)
-                preamble = preamblesb.toString();
-
-            if (line == null) {
-                if (allowEmpty)
-                    return;
-                else
-                    throw new ParseException("Missing start boundary");
-            }
-
-            // save individual boundary bytes for comparison later
-            byte[] bndbytes = MimeUtility.getBytes(boundary);
-            int bl = bndbytes.length;
-
-            /*
-             * Compile Boyer-Moore parsing tables.
-             */
-
-            // initialize Bad Character Shift table
-            int[] bcs = new int[256];
-            for (int i = 0; i < bl; i++)
-                bcs[bndbytes[i] & 0xff] = i + 1;
-
-            // initialize Good Suffix Shift table
-            int[] gss = new int[bl];
-            NEXT:
-            for (int i = bl; i > 0; i--) {
-                int j;    // the beginning index of the suffix being considered
-                for (j = bl - 1; j >= i; j--) {
-                    // Testing for good suffix
-                    if (bndbytes[j] == bndbytes[j - i]) {
-                        // bndbytes[j..len] is a good suffix
-                        gss[j - 1] = i;
-                    } else {
-                        // No match. The array has already been
-                        // filled up with correct values before.
-                        continue NEXT;
-                    }
-                }
-                while (j > 0)
-                    gss[--j] = i;
+            // save the preamble after skipping blank lines
+            if (line.length() > 0) {
+                // accumulate the preamble
+                if (preamblesb == null)
+                    preamblesb = new StringBuilder(line.length() + 2);
+                preamblesb.append(line).append(System.lineSeparator());
             }
-            gss[bl - 1] = 1;
-
-            /*
-             * Read and process body parts until we see the
-             * terminating boundary line (or EOF).
-             */
-            boolean done = false;
-            getparts:
-            while (!done) {
-                InternetHeaders headers = null;
-                if (sin != null) {
-                    start = sin.getPosition();
-                    // skip headers
-                    while ((line = lin.readLine()) != null && line.length() > 0)
-                        ;
-                    if (line == null) {
-                        if (!ignoreMissingEndBoundary)
-                            throw new ParseException(
-                                    "missing multipart end boundary");
-                        // assume there's just a missing end boundary
-                        complete = false;
-                        break getparts;
-                    }
-                } else {
-                    // collect the headers for this body part
-                    headers = createInternetHeaders(in);
-                }
-
-                if (!in.markSupported())
-                    throw new MessagingException("Stream doesn't support mark");
-
-                ByteArrayOutputStream buf = null;
-                // if we don't have a shared input stream, we copy the data
-                if (sin == null)
-                    buf = new ByteArrayOutputStream();
-                else
-                    end = sin.getPosition();
-                int b;
+        }
 
-                /*
-                 * These buffers contain the bytes we're checking
-                 * for a match.  inbuf is the current buffer and
-                 * previnbuf is the previous buffer.  We need the
-                 * previous buffer to check that we're preceeded
-                 * by an EOL.
-                 */
-                // XXX - a smarter algorithm would use a sliding window
-                //	 over a larger buffer
-                byte[] inbuf = new byte[bl];
-                byte[] previnbuf = new byte[bl];
-                int inSize = 0;        // number of valid bytes in inbuf
-                int prevSize = 0;    // number of valid bytes in previnbuf
-                int eolLen;
-                boolean first = true;
+        if (preamblesb != null)
+            preamble = preamblesb.toString();
 
-                /*
-                 * Read and save the content bytes in buf.
-                 */
-                for (; ; ) {
-                    in.mark(bl + 4 + 1000); // bnd + "--\r\n" + lots of LWSP
-                    eolLen = 0;
-                    inSize = readFully(in, inbuf, 0, bl);
-                    if (inSize < bl) {
-                        // hit EOF
-                        if (!ignoreMissingEndBoundary)
-                            throw new ParseException(
-                                    "missing multipart end boundary");
-                        if (sin != null)
-                            end = sin.getPosition();
-                        complete = false;
-                        done = true;
-                        break;
-                    }
-                    // check whether inbuf contains a boundary string
-                    int i;
-                    for (i = bl - 1; i >= 0; i--) {
-                        if (inbuf[i] != bndbytes[i])
-                            break;
-                    }
-                    if (i < 0) {    // matched all bytes
-                        eolLen = 0;
-                        if (!first) {
-                            // working backwards, find out if we were preceeded
-                            // by an EOL, and if so find its length
-                            b = previnbuf[prevSize - 1];
-                            if (b == '\r' || b == '\n') {
-                                eolLen = 1;
-                                if (b == '\n' && prevSize >= 2) {
-                                    b = previnbuf[prevSize - 2];
-                                    if (b == '\r')
-                                        eolLen = 2;
-                                }
-                            }
-                        }
-                        if (first || eolLen > 0) {    // yes, preceed by EOL
-                            if (sin != null) {
-                                // update "end", in case this really is
-                                // a valid boundary
-                                end = sin.getPosition() - bl - eolLen;
-                            }
-                            // matched the boundary, check for last boundary
-                            int b2 = in.read();
-                            if (b2 == '-') {
-                                if (in.read() == '-') {
-                                    complete = true;
-                                    done = true;
-                                    break;    // ignore trailing text
-                                }
-                            }
-                            // skip linear whitespace
-                            while (b2 == ' ' || b2 == '\t')
-                                b2 = in.read();
-                            // check for end of line
-                            if (b2 == '\n')
-                                break;    // got it!  break out of the loop
-                            if (b2 == '\r') {
-                                in.mark(1);
-                                if (in.read() != '\n')
-                                    in.reset();
-                                break;    // got it!  break out of the loop
-                            }
-                        }
-                        i = 0;
-                    }
+        if (line == null) {
+            if (allowEmpty)
+                return null;
+            else
+                throw new ParseException("Missing start boundary");
+        }
 
-                    /*
-                     * Get here if boundary didn't match,
-                     * wasn't preceeded by EOL, or wasn't
-                     * followed by whitespace or EOL.
-                     */
-
-                    // compute how many bytes we can skip
-                    int skip = Math.max(i + 1 - bcs[inbuf[i] & 0xff], gss[i]);
-                    // want to keep at least two characters
-                    if (skip < 2) {
-                        // only skipping one byte, save one byte
-                        // from previous buffer as well
-                        // first, write out bytes we're done with
-                        if (sin == null && prevSize > 1)
-                            buf.write(previnbuf, 0, prevSize - 1);
-                        in.reset();
-                        skipFully(in, 1);
-                        if (prevSize >= 1) {    // is there a byte to save?
-                            // yes, save one from previous and one from current
-                            previnbuf[0] = previnbuf[prevSize - 1];
-                            previnbuf[1] = inbuf[0];
-                            prevSize = 2;
-                        } else {
-                            // no previous bytes to save, can only save current
-                            previnbuf[0] = inbuf[0];
-                            prevSize = 1;
-                        }
-                    } else {
-                        // first, write out data from previous buffer before
-                        // we dump it
-                        if (prevSize > 0 && sin == null)
-                            buf.write(previnbuf, 0, prevSize);
-                        // all the bytes we're skipping are saved in previnbuf
-                        prevSize = skip;
-                        in.reset();
-                        skipFully(in, prevSize);
-                        // swap buffers
-                        byte[] tmp = inbuf;
-                        inbuf = previnbuf;
-                        previnbuf = tmp;
-                    }
-                    first = false;
-                }
+        // compile the Boyer-Moore tables for the boundary
+        ps.bnd = new Boundary(boundary);
+        return ps;
+    }
 
-                /*
-                 * Create a MimeBody element to represent this body part.
-                 */
-                MimeBodyPart part;
-                if (sin != null) {
-                    part = createMimeBodyPartIs(sin.newStream(start, end));
-                } else {
-                    // write out data from previous buffer, not including EOL
-                    if (prevSize - eolLen > 0)
-                        buf.write(previnbuf, 0, prevSize - eolLen);
-                    // if we didn't find a trailing boundary,
-                    // the current buffer has data we need too
-                    if (!complete && inSize > 0)
-                        buf.write(inbuf, 0, inSize);
-                    part = createMimeBodyPart(headers, buf.toByteArray());
-                }
-                super.addBodyPart(part);
-            }
-        } catch (IOException ioex) {
-            throw new MessagingException("IO Error", ioex);
-        } finally {
-            try {
-                in.close();
-            } catch (IOException cex) {
-                // ignore
+    /*
+     * Read and process the next body part.  Return false once we've
+     * seen the terminating boundary line (or EOF).
+     */
+    private boolean parseNextPart(ParseState ps)
+            throws IOException, MessagingException {
+        BoundaryInput input = ps.input;
+        SharedInputStream sin = ps.sin;
+        InternetHeaders headers = null;
+        long start = 0, end;
+        if (sin != null) {
+            start = ps.base + input.position();
+            // skip headers
+            String line;
+            while ((line = input.readLine()) != null && line.length() > 0)
+                ;
+            if (line == null) {
+                if (!ignoreMissingEndBoundary)
+                    throw new ParseException(
+                            "missing multipart end boundary");
+                // assume there's just a missing end boundary
+                complete = false;
+                return false;
             }
+        } else {
+            // collect the headers for this body part
+            headers = createInternetHeaders(input.stream());
+        }
+
+        /*
+         * Read the content up to the delimiter line, which the
+         * BoundaryInput finds by searching a whole buffer at a time.
+         * If we don't have a shared input stream, we copy the data.
+         */
+        ByteArrayOutputStream buf = null;
+        if (sin == null)
+            buf = new ByteArrayOutputStream();
+        input.startBody();
+        end = ps.base + input.position();
+        while (input.nextChunk(ps.bnd)) {
+            if (buf != null)
+                buf.write(input.buffer(), input.chunkStart, input.chunkLength);
+            end = ps.base + input.position(input.chunkStart + input.chunkLength);
+        }
+        int delimiter = input.delimiter();
+        if (delimiter == BoundaryInput.EOF) {
+            // hit EOF
+            if (!ignoreMissingEndBoundary)
+                throw new ParseException("missing multipart end boundary");
+            complete = false;
+        } else if (delimiter == BoundaryInput.CLOSE) {
+            complete = true;    // ignore trailing text
         }
 
-        parsed = true;
+        /*
+         * Create a MimeBody element to represent this body part.
+         */
+        MimeBodyPart part;
+        if (sin != null)
+            part = createMimeBodyPartIs(sin.newStream(start, end));
+        else
+            part = createMimeBodyPart(headers, buf.toByteArray());
+        super.addBodyPart(part);
+        return delimiter == BoundaryInput.NEXT;
     }
 
     /**
@@ -909,49 +1028,6 @@ public class MimeMultipart extends Multipart {
         return true;
     }
 
-    /**
-     * Read data from the input stream to fill the buffer starting
-     * at the specified offset with the specified number of bytes.
-     * If len is zero, return zero.  If at EOF, return -1.  Otherwise,
-     * return the number of bytes read.  Call the read method on the
-     * input stream as many times as necessary to read len bytes.
-     *
-     * @param in  InputStream to read from
-     * @param buf buffer to read into
-     * @param off offset in the buffer for first byte
-     * @param len number of bytes to read
-     * @return -1 on EOF, otherwise number of bytes read
-     * @throws IOException on I/O errors
-     */
-    private static int readFully(InputStream in, byte[] buf, int off, int len)
-            throws IOException {
-        if (len == 0)
-            return 0;
-        int total = 0;
-        while (len > 0) {
-            int bsize = in.read(buf, off, len);
-            if (bsize <= 0)    // should never be zero
-                break;
-            off += bsize;
-            total += bsize;
-            len -= bsize;
-        }
-        return total > 0 ? total : -1;
-    }
-
-    /**
-     * Skip the specified number of bytes, repeatedly calling
-     * the skip method as necessary.
-     */
-    private void skipFully(InputStream in, long offset) throws IOException {
-        while (offset > 0) {
-            long cur = in.skip(offset);
-            if (cur <= 0)
-                throw new EOFException("can't skip");
-            offset -= cur;
-        }
-    }
-
     /**
      * Create and return an InternetHeaders object that loads the
      * headers from the given InputStream.  Subclasses can override
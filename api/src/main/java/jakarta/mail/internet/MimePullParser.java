@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.internet;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.util.StreamProvider.EncoderTypes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+/**
+ * A pull parser for MIME messages.  Rather than building a tree of
+ * <code>MimeBodyPart</code> objects, as <code>MimeMessage</code> and
+ * <code>MimeMultipart</code> do, the parser reads the message from an
+ * <code>InputStream</code> and reports what it finds as a series of
+ * events, in the style of the StAX <code>XMLStreamReader</code>.  Only
+ * a fixed size buffer is used, whatever the size of the message, so
+ * this is suited to applications that need to look at every part of
+ * large messages, such as virus scanners or indexers. <p>
+ *
+ * The message itself, each body part of a <code>multipart</code> part,
+ * and the message contained in a <code>message/rfc822</code> part that
+ * isn't encoded, is reported by a {@link #START_PART START_PART} event,
+ * followed by a {@link #HEADERS HEADERS} event, then either the events for
+ * the parts it contains or any number of {@link #BODY BODY} events, and
+ * finally an {@link #END_PART END_PART} event.  The preamble and epilogue
+ * of a multipart are skipped.  An {@link #END_DOCUMENT END_DOCUMENT} event
+ * follows the end of the message.  For example:
+ * <blockquote><pre>
+ *	MimePullParser parser = new MimePullParser(in);
+ *	while (parser.hasNext()) {
+ *	    switch (parser.next()) {
+ *	    case MimePullParser.HEADERS:
+ *		String type = parser.getHeaders().getHeader("Content-Type", null);
+ *		...
+ *	    case MimePullParser.BODY:
+ *		ByteBuffer chunk = parser.getBody();
+ *		...
+ *	    }
+ *	}
+ * </pre></blockquote> <p>
+ *
+ * The body is returned as it appears in the message, without
+ * undoing any Content-Transfer-Encoding.  A <code>multipart</code>
+ * part without a boundary parameter is treated as a single body.
+ * As with <code>MimeMultipart</code>, a missing end boundary is ignored,
+ * and the last part ends at the end of the stream.
+ *
+ * @since JavaMail 2.2
+ */
+public class MimePullParser implements AutoCloseable {
+
+    /**
+     * The start of the message, or of a body part or contained message.
+     */
+    public static final int START_PART = 1;
+
+    /**
+     * The headers of the part have been read.
+     *
+     * @see #getHeaders
+     */
+    public static final int HEADERS = 2;
+
+    /**
+     * The next chunk of the body of the part has been read.
+     *
+     * @see #getBody
+     */
+    public static final int BODY = 3;
+
+    /**
+     * The end of the message, or of a body part or contained message.
+     */
+    public static final int END_PART = 4;
+
+    /**
+     * The end of the input.
+     */
+    public static final int END_DOCUMENT = 5;
+
+    // what's next for a part
+    private static final int READ_HEADERS = 0;
+    private static final int READ_BODY = 1;
+    private static final int READ_PREAMBLE = 2;
+    private static final int READ_EPILOGUE = 3;
+    private static final int START_NEXT = 4;    // the next body part
+    private static final int START_MESSAGE = 5;    // the contained message
+    private static final int END = 6;
+
+    /*
+     * A part being parsed.
+     */
+    private static final class Frame {
+        final Boundary end;    // ends the part, or null at end of stream
+        final int depth;
+        int state = READ_HEADERS;
+        InternetHeaders headers;
+        Boundary boundary;    // if the part is a multipart
+        int ended;    // how the part ended, in state END
+
+        Frame(Boundary end, int depth) {
+            this.end = end;
+            this.depth = depth;
+        }
+    }
+
+    private final BoundaryInput input;
+    private final Deque<Frame> parts = new ArrayDeque<>();
+    private Frame current;    // the part of the current event
+    private int event;
+
+    /**
+     * Create a parser that reads a MIME message from the stream.
+     *
+     * @param in the message input stream
+     */
+    public MimePullParser(InputStream in) {
+        this(in, 8192);
+    }
+
+    MimePullParser(InputStream in, int bufferSize) {
+        input = new BoundaryInput(in, bufferSize);
+    }
+
+    /**
+     * Are there any more events?
+     *
+     * @return true unless the END_DOCUMENT event has been returned
+     */
+    public boolean hasNext() {
+        return event != END_DOCUMENT;
+    }
+
+    /**
+     * Read the input up to the next event, and return it.
+     *
+     * @return the event
+     * @throws NoSuchElementException if there are no more events
+     * @throws MessagingException for failures reading the input
+     */
+    public int next() throws MessagingException {
+        if (event == END_DOCUMENT)
+            throw new NoSuchElementException("No more events");
+        try {
+            event = advance();
+        } catch (IOException ioex) {
+            throw new MessagingException("IO Error", ioex);
+        }
+        return event;
+    }
+
+    /**
+     * Return the current event, or 0 if <code>next</code>
+     * hasn't been called yet.
+     *
+     * @return the event
+     */
+    public int getEventType() {
+        return event;
+    }
+
+    /**
+     * Return the nesting depth of the part of the current event.
+     * The message itself has depth 0, and each part it contains,
+     * including a contained message, is one deeper than its parent.
+     *
+     * @return the depth
+     * @throws IllegalStateException at the start or end of the input
+     */
+    public int getDepth() {
+        return part().depth;
+    }
+
+    /**
+     * Return the headers of the part of the current event,
+     * from the HEADERS event until the END_PART event.
+     *
+     * @return the headers
+     * @throws IllegalStateException if the headers haven't been read
+     */
+    public InternetHeaders getHeaders() {
+        InternetHeaders h = part().headers;
+        if (h == null)
+            throw new IllegalStateException("Headers not read yet");
+        return h;
+    }
+
+    /**
+     * Return the chunk of the body read for a BODY event.  The buffer
+     * shares the parser's own buffer, and is only valid until the next
+     * call to <code>next</code>.
+     *
+     * @return a read-only buffer with the chunk of the body
+     * @throws IllegalStateException if the current event isn't BODY
+     */
+    public ByteBuffer getBody() {
+        if (event != BODY)
+            throw new IllegalStateException("Not a BODY event");
+        return ByteBuffer.wrap(input.buffer(), input.chunkStart,
+                input.chunkLength).asReadOnlyBuffer();
+    }
+
+    /**
+     * Close the input stream.
+     *
+     * @throws IOException for failures closing the stream
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private Frame part() {
+        if (current == null)
+            throw new IllegalStateException("No current part");
+        return current;
+    }
+
+    private int advance() throws IOException, MessagingException {
+        Frame f = parts.peek();
+        if (f == null) {
+            if (current == null)
+                return startPart(null);
+            current = null;
+            return END_DOCUMENT;
+        }
+        current = f;
+        switch (f.state) {
+        case READ_HEADERS:
+            readHeaders(f);
+            return HEADERS;
+        case READ_BODY:
+            if (input.nextChunk(f.end))
+                return BODY;
+            return endPart(input.delimiter());
+        case READ_PREAMBLE:
+            while (input.nextChunk(f.boundary))
+                ;
+            int d = input.delimiter();
+            if (d == BoundaryInput.NEXT)
+                return startPart(f.boundary);
+            if (d == BoundaryInput.EOF)
+                return endPart(d);
+            input.startBody();
+            // no body parts, go on to the epilogue
+            return readEpilogue(f);
+        case READ_EPILOGUE:
+            return readEpilogue(f);
+        case START_NEXT:
+            return startPart(f.boundary);
+        case START_MESSAGE:
+            return startPart(f.end);
+        default:    // END
+            return endPart(f.ended);
+        }
+    }
+
+    private int readEpilogue(Frame f) throws IOException {
+        while (input.nextChunk(f.end))
+            ;
+        return endPart(input.delimiter());
+    }
+
+    private int startPart(Boundary end) {
+        Frame parent = parts.peek();
+        current = new Frame(end, parent == null ? 0 : parent.depth + 1);
+        parts.push(current);
+        return START_PART;
+    }
+
+    /*
+     * The current part has ended, at the given kind of delimiter;
+     * decide what comes next for its parent.
+     */
+    private int endPart(int ended) {
+        current = parts.pop();
+        Frame parent = parts.peek();
+        if (parent != null) {
+            if (parent.state == START_MESSAGE || ended == BoundaryInput.EOF) {
+                // the parent ends with its only part
+                parent.state = END;
+                parent.ended = ended;
+            } else if (ended == BoundaryInput.CLOSE) {
+                input.startBody();
+                parent.state = READ_EPILOGUE;
+            } else {
+                parent.state = START_NEXT;
+            }
+        }
+        return END_PART;
+    }
+
+    private void readHeaders(Frame f) throws MessagingException {
+        InternetHeaders headers = new InternetHeaders();
+        headers.load(input.stream());
+        input.startBody();
+        f.headers = headers;
+        f.state = READ_BODY;
+
+        String s = headers.getHeader("Content-Type", null);
+        if (s == null)
+            return;
+        ContentType ct;
+        try {
+            ct = new ContentType(s);
+        } catch (ParseException pex) {
+            return;
+        }
+        if (ct.match("multipart/*")) {
+            String bp = ct.getParameter("boundary");
+            if (bp != null) {
+                f.boundary = new Boundary("--" + bp);
+                f.state = READ_PREAMBLE;
+            }
+        } else if (ct.match("message/rfc822")) {
+            String enc = headers.getHeader("Content-Transfer-Encoding", null);
+            if (enc != null)
+                enc = enc.trim();
+            // an encoded message is just a body
+            if (enc == null ||
+                    enc.equalsIgnoreCase(EncoderTypes.BIT7_ENCODER.getEncoder()) ||
+                    enc.equalsIgnoreCase(EncoderTypes.BIT8_ENCODER.getEncoder()) ||
+                    enc.equalsIgnoreCase(EncoderTypes.BINARY_ENCODER.getEncoder()))
+                f.state = START_MESSAGE;
+        }
+    }
+}
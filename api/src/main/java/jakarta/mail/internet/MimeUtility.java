@@ -28,18 +28,23 @@ import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
 
 /**
  * This is a utility class that provides various MIME related
@@ -127,7 +132,11 @@ import java.util.StringTokenizer;
  * header, as passed to the <code>decode</code> method, cause an exception.
  * If set to <code>"true"</code>, unknown values are ignored and 8bit
  * encoding is assumed.  Otherwise, unknown values cause a MessagingException
- * to be thrown.
+ * to be thrown. <p>
+ *
+ * The <code>mail.mime.encoding.sample</code> property limits how many
+ * bytes of a DataSource the <code>getEncoding</code> method reads to
+ * choose an encoding.  By default all of the data is read.
  *
  * @author John Mani
  * @author Bill Shannon
@@ -147,7 +156,18 @@ public class MimeUtility {
     // cached map of whether a charset is compatible with ASCII
     // Map<String,Boolean>
     private static final Map<String, Boolean> nonAsciiCharsetMap
-            = new HashMap<>();
+            = new ConcurrentHashMap<>();
+
+    // Charsets by their Java names, as returned by javaCharset
+    private static final Map<String, Charset> charsets =
+            new ConcurrentHashMap<>();
+
+    /*
+     * The charset names in these caches come from the messages being
+     * parsed, so only this many names are cached, and only names of
+     * charsets that exist.
+     */
+    private static final int MAX_CACHED_CHARSETS = 256;
 
     private static final String WORD_SPECIALS = "=_?\"#$%&'(),.:;<>@[\\]^`{|}~";
     private static final String TEXT_SPECIALS = "=_?";
@@ -156,6 +176,9 @@ public class MimeUtility {
     private static final boolean ignoreUnknownEncoding = getBooleanSystemProperty(
             "mail.mime.ignoreunknownencoding", false);
     private static final boolean allowUtf8 = getBooleanSystemProperty("mail.mime.allowutf8", false);
+    // how much of a DataSource getEncoding reads, or ALL
+    private static final int encodingSample = Math.max(
+            Integer.getInteger("mail.mime.encoding.sample", ALL), ALL);
     /*
      * The following two properties allow disabling the fold()
      * and unfold() methods and reverting to the previous behavior.
@@ -193,22 +216,78 @@ public class MimeUtility {
      * StreamProvider.QUOTED_PRINTABLE_ENCODER or StreamProvider.BASE_64_ENCODER
      */
     public static String getEncoding(DataSource ds) {
+        return getEncoding(ds, encodingSample);
+    }
+
+    /**
+     * Same as <code>getEncoding(DataSource)</code> except that at most
+     * <code>max</code> bytes of the data are examined, plus one more to
+     * see whether there's more data.  If there is, the data can't be
+     * known to be all US-ASCII, so the encoding is never
+     * StreamProvider.BIT7_ENCODER.  Data that isn't "text" and is at
+     * least <code>max</code> bytes long is always encoded with
+     * StreamProvider.BASE_64_ENCODER.  This avoids reading all of a large
+     * DataSource twice, once here and once again to write it out. <p>
+     *
+     * The <code>mail.mime.encoding.sample</code> System property sets the
+     * number of bytes examined by <code>getEncoding(DataSource)</code>.
+     *
+     * @param ds  the DataSource
+     * @param max the maximum number of bytes to examine, or
+     *            {@link #ALL} to examine all of the data
+     * @return the encoding. This is either StreamProvider.BIT7_ENCODER,
+     * StreamProvider.QUOTED_PRINTABLE_ENCODER or StreamProvider.BASE_64_ENCODER
+     * @since JavaMail 2.2
+     */
+    public static String getEncoding(DataSource ds, int max) {
+        return getEncoding(ds, max, null);
+    }
+
+    /**
+     * Same as <code>getEncoding(DataSource, int)</code>, and also reports
+     * the number of bytes of the data that were read to choose the
+     * encoding.  That's zero if the DataSource is {@link EncodingAware}
+     * and chooses its own encoding, and otherwise at most
+     * <code>max</code> + 1 unless all the data is examined.
+     *
+     * @param ds        the DataSource
+     * @param max       the maximum number of bytes to examine, or
+     *                  {@link #ALL} to examine all of the data
+     * @param bytesRead called once with the number of bytes read,
+     *                  or null
+     * @return the encoding. This is either StreamProvider.BIT7_ENCODER,
+     * StreamProvider.QUOTED_PRINTABLE_ENCODER or StreamProvider.BASE_64_ENCODER
+     * @since JavaMail 2.2
+     */
+    public static String getEncoding(DataSource ds, int max,
+                                     LongConsumer bytesRead) {
         ContentType cType = null;
         InputStream is = null;
+        CountingInputStream cis = null;
         String encoding = null;
 
         if (ds instanceof EncodingAware) {
             encoding = ((EncodingAware) ds).getEncoding();
-            if (encoding != null)
+            if (encoding != null) {
+                if (bytesRead != null)
+                    bytesRead.accept(0);
                 return encoding;
+            }
         }
+        if (max < 0)
+            max = ALL;
         try {
             cType = new ContentType(ds.getContentType());
             is = ds.getInputStream();
+            if (bytesRead != null)
+                is = cis = new CountingInputStream(is);
 
             boolean isText = cType.match("text/*");
             // if not text, stop processing when we see non-ASCII
-            int i = checkAscii(is, ALL, !isText);
+            int i = checkAscii(is, max, !isText);
+            // if only some of the data was checked, it might not all be ASCII
+            if (i == ALL_ASCII && max != ALL && is.read() != -1)
+                i = MOSTLY_ASCII;
             switch (i) {
                 case ALL_ASCII:
                     encoding = EncoderTypes.BIT7_ENCODER.getEncoder(); // all ASCII
@@ -233,11 +312,47 @@ public class MimeUtility {
                     is.close();
             } catch (IOException ioex) {
             }
+            if (bytesRead != null)
+                bytesRead.accept(cis != null ? cis.count : 0);
         }
 
         return encoding;
     }
 
+    /**
+     * An InputStream that counts the bytes read from it.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0)
+                count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0)
+                count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
     /**
      * Determine whether the charset in the Content-Type is compatible
      * with ASCII or not.  A charset is compatible with ASCII if the
@@ -252,23 +367,21 @@ public class MimeUtility {
         if (charset == null)
             return false;
         charset = charset.toLowerCase(Locale.ENGLISH);
-        Boolean bool;
-        synchronized (nonAsciiCharsetMap) {
-            bool = nonAsciiCharsetMap.get(charset);
-        }
+        Boolean bool = nonAsciiCharsetMap.get(charset);
         if (bool == null) {
+            boolean cache = true;
             try {
-                byte[] b = "\r\n".getBytes(charset);
+                byte[] b = "\r\n".getBytes(getCharset(javaCharset(charset)));
                 bool = Boolean.valueOf(
                         b.length != 2 || b[0] != 015 || b[1] != 012);
             } catch (UnsupportedEncodingException uex) {
                 bool = Boolean.FALSE;    // a guess
+                cache = false;
             } catch (RuntimeException ex) {
                 bool = Boolean.TRUE;    // one of the weird ones?
             }
-            synchronized (nonAsciiCharsetMap) {
+            if (cache && nonAsciiCharsetMap.size() < MAX_CACHED_CHARSETS)
                 nonAsciiCharsetMap.put(charset, bool);
-            }
         }
         return bool.booleanValue();
     }
@@ -573,8 +686,6 @@ public class MimeUtility {
          * (as per RFC 2047, Section 6.1)
          * RFC 822 defines "linear-white-space" as SPACE | HT | CR | NL.
          */
-        String lwsp = " \t\n\r";
-        StringTokenizer st;
 
         /*
          * First, lets do a quick run thru the string and check
@@ -590,72 +701,70 @@ public class MimeUtility {
 
         // Encoded words found. Start decoding ...
 
-        st = new StringTokenizer(etext, lwsp, true);
-        StringBuilder sb = new StringBuilder();  // decode buffer
-        StringBuilder wsb = new StringBuilder(); // white space buffer
+        int len = etext.length();
+        StringBuilder sb = new StringBuilder(len);  // decode buffer
+        WordDecoder d = new WordDecoder(sb, len);
         boolean prevWasEncoded = false;
+        int i = 0;
+
+        while (i < len) {
+            // collect the white space before the next word
+            int ws = i;
+            while (i < len && isLinearWhiteSpace(etext.charAt(i)))
+                i++;
+            if (i == len) {
+                d.append(etext, ws, len);    // append trailing whitespace
+                break;
+            }
+            int start = i;
+            while (i < len && !isLinearWhiteSpace(etext.charAt(i)))
+                i++;
 
-        while (st.hasMoreTokens()) {
-            char c;
-            String s = st.nextToken();
-            // If whitespace, append it to the whitespace buffer
-            if (((c = s.charAt(0)) == ' ') || (c == '\t') ||
-                    (c == '\r') || (c == '\n'))
-                wsb.append(c);
-            else {
-                // Check if token is an 'encoded-word' ..
-                String word;
-                try {
-                    word = decodeWord(s);
-                    // Yes, this IS an 'encoded-word'.
-                    if (!prevWasEncoded && wsb.length() > 0) {
-                        // if the previous word was also encoded, we
-                        // should ignore the collected whitespace. Else
-                        // we include the whitespace as well.
-                        sb.append(wsb);
-                    }
-                    prevWasEncoded = true;
-                } catch (ParseException pex) {
-                    // This is NOT an 'encoded-word'.
-                    word = s;
-                    // possibly decode inner encoded words
-                    if (!decodeStrict) {
-                        String dword = decodeInnerWords(word);
-                        if (dword != word) {
-                            // if a different String object was returned,
-                            // decoding was done.
-                            if (prevWasEncoded && word.startsWith("=?")) {
-                                // encoded followed by encoded,
-                                // throw away whitespace between
-                            } else {
-                                // include collected whitespace ..
-                                if (wsb.length() > 0)
-                                    sb.append(wsb);
-                            }
-                            // did original end with encoded?
-                            prevWasEncoded = word.endsWith("?=");
-                            word = dword;
-                        } else {
-                            // include collected whitespace ..
-                            if (wsb.length() > 0)
-                                sb.append(wsb);
-                            prevWasEncoded = false;
-                        }
-                    } else {
-                        // include collected whitespace ..
-                        if (wsb.length() > 0)
-                            sb.append(wsb);
-                        prevWasEncoded = false;
-                    }
+            // if the previous word was also encoded, we should ignore
+            // the collected whitespace. Else we include the whitespace
+            // as well, whether or not this word is encoded.
+            if (!prevWasEncoded)
+                d.append(etext, ws, start);
+
+            // Check if token is an 'encoded-word' ..
+            int end;
+            try {
+                end = d.decode(etext, start, i);
+            } catch (ParseException pex) {
+                // This is NOT an 'encoded-word'.
+                String word = etext.substring(start, i);
+                // possibly decode inner encoded words
+                String dword = decodeStrict ? word : decodeInnerWords(word);
+                if (prevWasEncoded &&
+                        !(dword != word && word.startsWith("=?"))) {
+                    // include collected whitespace, unless this is
+                    // encoded followed by encoded
+                    d.append(etext, ws, start);
                 }
-                sb.append(word); // append the actual word
-                wsb.setLength(0); // reset wsb for reuse
+                // if a different String object was returned,
+                // decoding was done; did original end with encoded?
+                prevWasEncoded = dword != word && word.endsWith("?=");
+                d.append(dword, 0, dword.length()); // append the word
+                continue;
+            }
+            // Yes, this IS an 'encoded-word'.
+            prevWasEncoded = true;
+            if (end < i) {
+                // there's still more text in the word
+                String rest = etext.substring(end, i);
+                if (!decodeStrict)
+                    rest = decodeInnerWords(rest);
+                d.append(rest, 0, rest.length());
             }
         }
-        sb.append(wsb);        // append trailing whitespace
+        d.flush();
         return sb.toString();
     }
 
+    private static boolean isLinearWhiteSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
     /**
      * Encode a RFC 822 "word" token into mail-safe form as per
      * RFC 2047. <p>
@@ -728,12 +837,12 @@ public class MimeUtility {
             return string;
 
         // Else, apply the specified charset conversion.
-        String jcharset;
+        Charset jcharset;
         if (charset == null) { // use default charset
-            jcharset = getDefaultJavaCharset(); // the java charset
+            jcharset = getCharset(getDefaultJavaCharset()); // the java charset
             charset = getDefaultMIMECharset(); // the MIME equivalent
         } else // MIME charset -> java charset
-            jcharset = javaCharset(charset);
+            jcharset = getCharset(javaCharset(charset));
 
         // If no transfer-encoding is specified, figure one out.
         if (encoding == null) {
@@ -753,17 +862,130 @@ public class MimeUtility {
                     "Unknown transfer encoding: " + encoding);
 
         StringBuilder outb = new StringBuilder(); // the output buffer
-        doEncode(string, b64, jcharset,
-                // As per RFC 2047, size of an encoded string should not
-                // exceed 75 bytes.
-                // 7 = size of "=?", '?', 'B'/'Q', '?', "?="
-                75 - 7 - charset.length(), // the available space
-                "=?" + charset + "?" + encoding + "?", // prefix
-                true, encodingWord, outb);
+        // As per RFC 2047, size of an encoded string should not
+        // exceed 75 bytes.
+        // 7 = size of "=?", '?', 'B'/'Q', '?', "?="
+        int avail = 75 - 7 - charset.length(); // the available space
+        String prefix = "=?" + charset + "?" + encoding + "?";
+        if (!encodePlanned(string, b64, jcharset, avail, prefix,
+                encodingWord, outb))
+            doEncode(string, b64, jcharset, avail, prefix,
+                    true, encodingWord, outb);
 
         return outb.toString();
     }
 
+    /**
+     * Encode the string in a single pass, filling each encoded-word
+     * with as many characters as fit in <code>avail</code>.  This needs
+     * to know how many bytes each character is encoded as, so it's only
+     * done for UTF-8 and for charsets that encode each character as a
+     * single byte.  Returns false, having done nothing, for any other
+     * charset, which is encoded by <code>doEncode</code> instead.
+     */
+    private static boolean encodePlanned(String string, boolean b64,
+                                         Charset jcharset, int avail,
+                                         String prefix, boolean encodingWord,
+                                         StringBuilder buf) {
+        boolean utf8 = jcharset.equals(StandardCharsets.UTF_8);
+        if (!utf8 && !(jcharset.canEncode() &&
+                jcharset.newEncoder().maxBytesPerChar() == 1.0f))
+            return false;
+
+        byte[] bytes = string.getBytes(jcharset);
+        String specials = encodingWord ? WORD_SPECIALS : TEXT_SPECIALS;
+        int mark = buf.length();
+        int start = 0;    // the first byte of the current encoded-word
+        int end = 0;      // the end of the bytes planned so far
+        int qlen = 0;     // the Q encoded length of the current word
+        for (int i = 0; i < string.length(); ) {
+            int c = string.codePointAt(i);
+            i += Character.charCount(c);
+            // how many bytes the character is encoded as; characters
+            // that can't be encoded, including unpaired surrogates,
+            // are replaced with a single byte
+            int n = 1;
+            if (utf8 && c >= 0x80 &&
+                    (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE))
+                n = c < 0x800 ? 2 : c < 0x10000 ? 3 : 4;
+            if (end + n > bytes.length)
+                break;    // not the bytes we expected, give up
+            int q = 0;
+            if (!b64) {
+                for (int k = end; k < end + n; k++)
+                    q += qEncodedLength(bytes[k] & 0xff, specials);
+            }
+            int len = b64 ? ((end + n - start + 2) / 3) * 4 : qlen + q;
+            if (len > avail && end > start) {
+                // the character doesn't fit, start a new encoded-word
+                appendWord(bytes, start, end, b64, specials, prefix,
+                        start == 0, buf);
+                start = end;
+                qlen = q;
+            } else {
+                qlen += q;
+            }
+            end += n;
+        }
+        if (end != bytes.length) {
+            buf.setLength(mark);
+            return false;
+        }
+        appendWord(bytes, start, end, b64, specials, prefix, start == 0, buf);
+        return true;
+    }
+
+    /**
+     * Append an encoded-word with the bytes from start to end.
+     */
+    private static void appendWord(byte[] bytes, int start, int end,
+                                   boolean b64, String specials, String prefix,
+                                   boolean first, StringBuilder buf) {
+        if (!first) // not the first line of this sequence
+            if (foldEncodedWords)
+                buf.append("\r\n "); // start a continuation line
+            else
+                buf.append(" "); // line will be folded later
+
+        buf.append(prefix);
+        if (b64) {
+            int i = start;
+            for (; i + 2 < end; i += 3) {
+                int bits = (bytes[i] & 0xff) << 16 |
+                        (bytes[i + 1] & 0xff) << 8 | (bytes[i + 2] & 0xff);
+                buf.append(BASE64_CHARS.charAt(bits >> 18))
+                        .append(BASE64_CHARS.charAt((bits >> 12) & 0x3f))
+                        .append(BASE64_CHARS.charAt((bits >> 6) & 0x3f))
+                        .append(BASE64_CHARS.charAt(bits & 0x3f));
+            }
+            if (i < end) {
+                int bits = (bytes[i] & 0xff) << 16;
+                if (i + 1 < end)
+                    bits |= (bytes[i + 1] & 0xff) << 8;
+                buf.append(BASE64_CHARS.charAt(bits >> 18))
+                        .append(BASE64_CHARS.charAt((bits >> 12) & 0x3f))
+                        .append(i + 1 < end ?
+                                BASE64_CHARS.charAt((bits >> 6) & 0x3f) : '=')
+                        .append('=');
+            }
+        } else {
+            for (int i = start; i < end; i++) {
+                int c = bytes[i] & 0xff;
+                if (c == ' ')
+                    buf.append('_');
+                else if (qEncodedLength(c, specials) == 3)
+                    buf.append('=')
+                            .append(Character.toUpperCase(
+                                    Character.forDigit(c >> 4, 16)))
+                            .append(Character.toUpperCase(
+                                    Character.forDigit(c & 0xf, 16)));
+                else
+                    buf.append((char) c);
+            }
+        }
+        buf.append("?="); // terminate the current sequence
+    }
+
     /**
      * Returns the length of the encoded version of this byte array.
      *
@@ -784,21 +1006,24 @@ public class MimeUtility {
     private static int qEncodedLength(byte[] b, boolean encodingWord) {
         int len = 0;
         String specials = encodingWord ? WORD_SPECIALS : TEXT_SPECIALS;
-        for (int i = 0; i < b.length; i++) {
-            int c = b[i] & 0xff; // Mask off MSB
-            if (c < 040 || c >= 0177 || specials.indexOf(c) >= 0)
-                // needs encoding
-                len += 3; // Q-encoding is 1 -> 3 conversion
-            else
-                len++;
-        }
+        for (int i = 0; i < b.length; i++)
+            len += qEncodedLength(b[i] & 0xff, specials); // Mask off MSB
         return len;
     }
 
+    /**
+     * Returns the length of the Q encoded version of this byte.
+     */
+    private static int qEncodedLength(int c, String specials) {
+        if (c < 040 || c >= 0177 || specials.indexOf(c) >= 0)
+            // needs encoding
+            return 3; // Q-encoding is 1 -> 3 conversion
+        return 1;
+    }
+
     private static void doEncode(String string, boolean b64,
-                                 String jcharset, int avail, String prefix,
-                                 boolean first, boolean encodingWord, StringBuilder buf)
-            throws UnsupportedEncodingException {
+                                 Charset jcharset, int avail, String prefix,
+                                 boolean first, boolean encodingWord, StringBuilder buf) {
 
         // First find out what the length of the encoded version of
         // 'string' would be.
@@ -870,104 +1095,18 @@ public class MimeUtility {
      */
     public static String decodeWord(String eword)
             throws ParseException, UnsupportedEncodingException {
-
-        if (!eword.startsWith("=?")) // not an encoded word
-            throw new ParseException(
-                    "encoded word does not start with \"=?\": " + eword);
-
-        // get charset
-        int start = 2;
-        int pos;
-        if ((pos = eword.indexOf('?', start)) == -1)
-            throw new ParseException(
-                    "encoded word does not include charset: " + eword);
-        String charset = eword.substring(start, pos);
-        int lpos = charset.indexOf('*');    // RFC 2231 language specified?
-        if (lpos >= 0)                // yes, throw it away
-            charset = charset.substring(0, lpos);
-        charset = javaCharset(charset);
-
-        // get encoding
-        start = pos + 1;
-        if ((pos = eword.indexOf('?', start)) == -1)
-            throw new ParseException(
-                    "encoded word does not include encoding: " + eword);
-        String encoding = eword.substring(start, pos);
-
-        // get encoded-sequence
-        start = pos + 1;
-        if ((pos = eword.indexOf("?=", start)) == -1)
-            throw new ParseException(
-                    "encoded word does not end with \"?=\": " + eword);
-	/*
-	 * XXX - should include this, but leaving it out for compatibility...
-	 *
-	if (decodeStrict && pos != eword.length() - 2)
-	    throw new ParseException(
-		"encoded word does not end with \"?=\": " + eword););
-	 */
-        String word = eword.substring(start, pos);
-
-        try {
-            String decodedWord;
-            if (word.length() > 0) {
-                // Extract the bytes from word
-                ByteArrayInputStream bis =
-                        new ByteArrayInputStream(getBytes(word));
-
-                // Get the appropriate decoder
-                InputStream is;
-                if (encoding.equalsIgnoreCase("B"))
-                    is = StreamProvider.provider().inputBase64(bis);
-                else if (encoding.equalsIgnoreCase("Q"))
-                    is = StreamProvider.provider().inputQ(bis);
-                else
-                    throw new UnsupportedEncodingException(
-                            "unknown encoding: " + encoding);
-
-                // For b64 & q, size of decoded word <= size of word. So
-                // the decoded bytes must fit into the 'bytes' array. This
-                // is certainly more efficient than writing bytes into a
-                // ByteArrayOutputStream and then pulling out the byte[]
-                // from it.
-                int count = bis.available();
-                byte[] bytes = new byte[count];
-                // count is set to the actual number of decoded bytes
-                count = is.read(bytes, 0, count);
-
-                // Finally, convert the decoded bytes into a String using
-                // the specified charset
-                decodedWord = count <= 0 ? "" :
-                        new String(bytes, 0, count, charset);
-            } else {
-                // no characters to decode, return empty string
-                decodedWord = "";
-            }
-            if (pos + 2 < eword.length()) {
-                // there's still more text in the string
-                String rest = eword.substring(pos + 2);
-                if (!decodeStrict)
-                    rest = decodeInnerWords(rest);
-                decodedWord += rest;
-            }
-            return decodedWord;
-        } catch (UnsupportedEncodingException uex) {
-            // explicitly catch and rethrow this exception, otherwise
-            // the below IOException catch will swallow this up!
-            throw uex;
-        } catch (IOException ioex) {
-            // Shouldn't happen.
-            throw new ParseException(ioex.toString());
-        } catch (IllegalArgumentException iex) {
-            /* An unknown charset of the form ISO-XXX-XXX, will cause
-             * the JDK to throw an IllegalArgumentException ... Since the
-             * JDK will attempt to create a classname using this string,
-             * but valid classnames must not contain the character '-',
-             * and this results in an IllegalArgumentException, rather than
-             * the expected UnsupportedEncodingException. Yikes
-             */
-            throw new UnsupportedEncodingException(charset);
+        StringBuilder sb = new StringBuilder(eword.length());
+        WordDecoder d = new WordDecoder(sb, eword.length());
+        int end = d.decode(eword, 0, eword.length());
+        d.flush();
+        if (end < eword.length()) {
+            // there's still more text in the string
+            String rest = eword.substring(end);
+            if (!decodeStrict)
+                rest = decodeInnerWords(rest);
+            sb.append(rest);
         }
+        return sb.toString();
     }
 
     /**
@@ -978,9 +1117,9 @@ public class MimeUtility {
     private static String decodeInnerWords(String word)
             throws UnsupportedEncodingException {
         int start = 0, i;
-        StringBuilder buf = new StringBuilder();
+        StringBuilder buf = null;
+        WordDecoder d = null;
         while ((i = word.indexOf("=?", start)) >= 0) {
-            buf.append(word, start, i);
             // find first '?' after opening '=?' - end of charset
             int end = word.indexOf('?', i + 2);
             if (end < 0)
@@ -993,22 +1132,223 @@ public class MimeUtility {
             end = word.indexOf("?=", end + 1);
             if (end < 0)
                 break;
-            String s = word.substring(i, end + 2);
+            if (d == null) {
+                buf = new StringBuilder(word.length());
+                d = new WordDecoder(buf, word.length());
+            }
+            d.append(word, start, i);
             try {
-                s = decodeWord(s);
+                d.decode(word, i, end + 2);
             } catch (ParseException pex) {
                 // ignore it, just use the original string
+                d.append(word, i, end + 2);
             }
-            buf.append(s);
             start = end + 2;
         }
         if (start == 0)
             return word;
-        if (start < word.length())
-            buf.append(word.substring(start));
+        d.append(word, start, word.length());
+        d.flush();
         return buf.toString();
     }
 
+    /**
+     * Decodes RFC 2047 encoded-words directly from the characters of
+     * a String into a StringBuilder.  The bytes of encoded-words that
+     * follow each other with nothing else appended in between, and
+     * that use the same charset, are collected and converted to
+     * characters together, so that a character split across two
+     * encoded-words, as some mailers do, is still decoded correctly.
+     */
+    private static final class WordDecoder {
+        private final StringBuilder out;
+        private byte[] bytes;
+        private int count;
+        private String mimeCharset;    // the charset named in the word
+        private String charset;    // the Java charset of the bytes
+
+        WordDecoder(StringBuilder out, int size) {
+            this.out = out;
+            bytes = new byte[size];
+        }
+
+        /**
+         * Append the characters of s from start to end, after any
+         * bytes decoded so far.
+         */
+        void append(String s, int start, int end)
+                throws UnsupportedEncodingException {
+            if (start == end)
+                return;
+            flush();
+            out.append(s, start, end);
+        }
+
+        /**
+         * Convert the bytes decoded so far to characters.
+         */
+        void flush() throws UnsupportedEncodingException {
+            if (count == 0)
+                return;
+            out.append(new String(bytes, 0, count, getCharset(charset)));
+            count = 0;
+        }
+
+        /**
+         * Decode the encoded-word that starts at start, which can't extend
+         * beyond end, and return the index just after its terminating "?=".
+         * Nothing is decoded if it isn't an encoded-word.
+         *
+         * @throws ParseException if it isn't an encoded-word
+         * @throws UnsupportedEncodingException if the encoding is unknown
+         */
+        int decode(String s, int start, int end)
+                throws ParseException, UnsupportedEncodingException {
+            if (!s.startsWith("=?", start)) // not an encoded word
+                throw new ParseException(
+                        "encoded word does not start with \"=?\": " +
+                        s.substring(start, end));
+
+            // get charset
+            int cstart = start + 2;
+            int pos = s.indexOf('?', cstart);
+            if (pos < 0 || pos >= end)
+                throw new ParseException(
+                        "encoded word does not include charset: " +
+                        s.substring(start, end));
+            int cend = pos;
+            for (int i = cstart; i < pos; i++) {
+                if (s.charAt(i) == '*') {    // RFC 2231 language specified?
+                    cend = i;                // yes, throw it away
+                    break;
+                }
+            }
+
+            // get encoding
+            int estart = pos + 1;
+            if ((pos = s.indexOf('?', estart)) < 0 || pos >= end)
+                throw new ParseException(
+                        "encoded word does not include encoding: " +
+                        s.substring(start, end));
+            int eend = pos;
+
+            // get encoded-sequence
+            int wstart = pos + 1;
+            if ((pos = s.indexOf("?=", wstart)) < 0 || pos + 2 > end)
+                throw new ParseException(
+                        "encoded word does not end with \"?=\": " +
+                        s.substring(start, end));
+            int wend = pos;
+            if (wstart == wend)
+                return wend + 2;    // nothing to decode
+
+            boolean b64;
+            char e = eend - estart == 1 ? s.charAt(estart) : 0;
+            if (e == 'B' || e == 'b')
+                b64 = true;
+            else if (e == 'Q' || e == 'q')
+                b64 = false;
+            else
+                throw new UnsupportedEncodingException(
+                        "unknown encoding: " + s.substring(estart, eend));
+
+            // collect the bytes with those of the previous word,
+            // if it used the same charset
+            if (!charsetMatches(s, cstart, cend)) {
+                flush();
+                mimeCharset = s.substring(cstart, cend);
+                charset = javaCharset(mimeCharset);
+            }
+            // For b64 & q, size of decoded word <= size of word.
+            if (bytes.length - count < wend - wstart)
+                bytes = Arrays.copyOf(bytes,
+                        Math.max(bytes.length * 2, count + wend - wstart));
+            count = b64 ? decodeB(s, wstart, wend) : decodeQ(s, wstart, wend);
+            return wend + 2;
+        }
+
+        /**
+         * Is the charset named in s from start to end the same as the
+         * one named by the previous encoded-word?
+         */
+        private boolean charsetMatches(String s, int start, int end) {
+            return mimeCharset != null && mimeCharset.length() == end - start &&
+                    s.regionMatches(true, start, mimeCharset, 0, end - start);
+        }
+
+        private int decodeB(String s, int start, int end)
+                throws ParseException {
+            int n = count, bits = 0, chars = 0;
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                if (c == '=')    // padding
+                    break;
+                int v = c < BASE64.length ? BASE64[c] : -1;
+                if (v < 0)    // ignore any illegal characters
+                    continue;
+                bits = bits << 6 | v;
+                if (++chars == 4) {
+                    bytes[n++] = (byte) (bits >> 16);
+                    bytes[n++] = (byte) (bits >> 8);
+                    bytes[n++] = (byte) bits;
+                    bits = chars = 0;
+                }
+            }
+            switch (chars) {
+                case 1:
+                    throw new ParseException(
+                            "encoded word has too few base64 characters: " +
+                            s.substring(start, end));
+                case 2:
+                    bytes[n++] = (byte) (bits >> 4);
+                    break;
+                case 3:
+                    bytes[n++] = (byte) (bits >> 10);
+                    bytes[n++] = (byte) (bits >> 2);
+                    break;
+                default:
+                    break;
+            }
+            return n;
+        }
+
+        private int decodeQ(String s, int start, int end)
+                throws ParseException {
+            int n = count;
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                if (c == '_') {
+                    bytes[n++] = (byte) ' ';
+                } else if (c == '=') {
+                    int hi = i + 2 < end ?
+                            Character.digit(s.charAt(i + 1), 16) : -1;
+                    int lo = hi >= 0 ?
+                            Character.digit(s.charAt(i + 2), 16) : -1;
+                    if (lo < 0)
+                        throw new ParseException(
+                                "encoded word has bad Q encoding: " +
+                                s.substring(start, end));
+                    bytes[n++] = (byte) (hi << 4 | lo);
+                    i += 2;
+                } else {
+                    bytes[n++] = (byte) c;
+                }
+            }
+            return n;
+        }
+    }
+
+    // the base64 characters, and the value of each one, or -1
+    private static final String BASE64_CHARS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+    private static final byte[] BASE64 = new byte[128];
+
+    static {
+        Arrays.fill(BASE64, (byte) -1);
+        for (int i = 0; i < BASE64_CHARS.length(); i++)
+            BASE64[BASE64_CHARS.charAt(i)] = (byte) i;
+    }
+
     /**
      * A utility method to quote a word, if the word contains any
      * characters from the specified 'specials' list.<p>
@@ -1270,7 +1610,7 @@ public class MimeUtility {
         if (alias != null) {
             // verify that the mapped name is valid before trying to use it
             try {
-                Charset.forName(alias);
+                getCharset(alias);
             } catch (Exception ex) {
                 alias = null;    // charset alias not valid, use original name
             }
@@ -1278,6 +1618,30 @@ public class MimeUtility {
         return alias == null ? charset : alias;
     }
 
+    /**
+     * Return the Charset with the given Java name, as returned by
+     * <code>javaCharset</code>.  Charsets are cached, so that encoding
+     * and decoding words doesn't look up the charset by name each time.
+     *
+     * @param charset the Java charset name
+     * @return the Charset
+     * @throws UnsupportedEncodingException if there's no such charset
+     */
+    static Charset getCharset(String charset)
+            throws UnsupportedEncodingException {
+        Charset cs = charsets.get(charset);
+        if (cs == null) {
+            try {
+                cs = Charset.forName(charset);
+            } catch (IllegalArgumentException ex) {
+                throw new UnsupportedEncodingException(charset);
+            }
+            if (charsets.size() < MAX_CACHED_CHARSETS)
+                charsets.put(charset, cs);
+        }
+        return cs;
+    }
+
     /**
      * Convert a java charset into its MIME charset name. <p>
      *
@@ -1587,7 +1951,9 @@ public class MimeUtility {
         }
         while (max != 0) {
             try {
-                if ((len = is.read(buf, 0, block)) == -1)
+                // never read past max, whatever the size of earlier reads
+                int n = (max == ALL) ? block : Math.min(block, max);
+                if ((len = is.read(buf, 0, n)) == -1)
                     break;
                 int lastb = 0;
                 for (int i = 0; i < len; i++) {
@@ -71,6 +71,36 @@
  * supports UTF-8.
  * </TD>
  * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.mime.lazybody">mail.mime.lazybody</A></TD>
+ * <TD>boolean</TD>
+ * <TD>
+ * If set to <code>"true"</code>, a <code>MimeMessage</code> parsed from an
+ * <code>InputStream</code> that isn't a <code>SharedInputStream</code>
+ * reads only the message headers.  The body is left unread in the stream
+ * until it's needed, e.g., by <code>getContent</code>,
+ * <code>getInputStream</code>, or <code>writeTo</code>, so the stream must
+ * be left open until then.  Defaults to false.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.mime.buffer.threshold">mail.mime.buffer.threshold</A></TD>
+ * <TD>long</TD>
+ * <TD>
+ * The largest body, in bytes, that a <code>MimeMessage</code> parsed from
+ * an <code>InputStream</code> that isn't a <code>SharedInputStream</code>
+ * keeps in memory.  A larger body is copied to a temporary file and read
+ * through a <code>SharedFileInputStream</code>, so that the parts of a
+ * multipart body are still read from that file as they're needed.
+ * The temporary file is removed once it's opened, or when the JVM exits
+ * on systems that don't allow an open file to be removed.  If set as a
+ * System property, this also applies to a <code>MimeBodyPart</code>
+ * constructed from an <code>InputStream</code>.  By default all bodies
+ * are kept in memory.
+ * </TD>
+ * </TR>
  * </TABLE>
  * <P>
  * The Jakarta Mail API specification requires support for the following properties,
@@ -140,6 +170,20 @@
  * </TR>
  *
  * <TR>
+ * <TD><A ID="mail.mime.encoding.sample">mail.mime.encoding.sample</A></TD>
+ * <TD>int</TD>
+ * <TD>
+ * The maximum number of bytes of a DataSource that the
+ * <code>MimeUtility</code> method <code>getEncoding</code> reads to choose
+ * the Content-Transfer-Encoding for a MIME part, so that large attachments
+ * aren't read once to choose the encoding and again to write them out.
+ * If there's more data than this, "text" data is encoded with
+ * quoted-printable or base64, and other data is encoded with base64.
+ * By default all of the data is read.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
  * <TD><A ID="mail.mime.decodefilename">mail.mime.decodefilename</A></TD>
  * <TD>boolean</TD>
  * <TD>
@@ -238,6 +282,36 @@
  * </TR>
  *
  * <TR>
+ * <TD><A ID="mail.mime.multipart.incremental">mail.mime.multipart. incremental</A></TD>
+ * <TD>boolean</TD>
+ * <TD>
+ * Normally, a MimeMultipart parses all of its body parts the first time
+ * any of them is needed.  If this System property is set to
+ * <code>"true"</code>, only the body parts up to the one asked for by
+ * <code>getBodyPart</code> are parsed, and the rest are parsed as they're
+ * needed.  Methods such as <code>getCount</code> and <code>writeTo</code>
+ * still parse all of the body parts.
+ * The default value of this property is false.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.mime.multipart.parallelwrite">mail.mime.multipart. parallelwrite</A></TD>
+ * <TD>boolean</TD>
+ * <TD>
+ * Normally, a MimeMultipart writes out its body parts one at a time.
+ * If this System property is set to <code>"true"</code>, the body parts
+ * are encoded concurrently, a few at a time, and then written out in
+ * order.  See {@link jakarta.mail.internet.MimeMultipart#setWriteExecutor
+ * MimeMultipart.setWriteExecutor}.  Each encoded body part is held in
+ * memory, or in a temporary file if it's larger than the
+ * <code>mail.mime.buffer.threshold</code> System property, or one
+ * megabyte if that property isn't set.
+ * The default value of this property is false.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
  * <TD><A ID="mail.mime.multipart.allowempty">mail.mime.multipart. allowempty</A></TD>
  * <TD>boolean</TD>
  * <TD>
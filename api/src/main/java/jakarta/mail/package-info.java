@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -255,6 +255,69 @@
  * </TR>
  *
  * <TR>
+ * <TD><A ID="mail.transport.pool">mail.transport.pool</A></TD>
+ * <TD>boolean</TD>
+ * <TD>
+ * If set to true, the static {@link jakarta.mail.Transport#send send}
+ * methods of the {@link jakarta.mail.Transport Transport} class keep the
+ * connected Transport after a message has been sent successfully, and
+ * reuse it for the next message sent through the same Session with the
+ * same protocol, user name and password.
+ * Before an idle Transport is reused, its
+ * {@link jakarta.mail.Service#isConnected isConnected} method is called
+ * to verify that the connection is still alive.
+ * Default is false.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.transport.pool.size">mail.transport.pool.size</A></TD>
+ * <TD>int</TD>
+ * <TD>
+ * The maximum number of idle Transports kept for each protocol,
+ * user name and password when <code>mail.transport.pool</code> is true.
+ * Default is 4.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.transport.pool.timeout">mail.transport.pool.timeout</A></TD>
+ * <TD>long</TD>
+ * <TD>
+ * The number of milliseconds after which an idle Transport is closed
+ * by a background thread, instead of being reused.  If zero or less,
+ * no Transport is kept.  See {@link jakarta.mail.TransportPool}.
+ * Default is 60000.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.transport.async.executor">mail.transport.async.executor</A></TD>
+ * <TD>java.util.concurrent.Executor</TD>
+ * <TD>
+ * The Executor used by the {@link jakarta.mail.Transport#sendAsync sendAsync}
+ * method of the {@link jakarta.mail.Transport Transport} class to send
+ * messages.  Note that this property must be set using the
+ * <code>Properties</code> <code>put</code> method.
+ * By default, messages are sent from virtual threads if the JDK supports
+ * them, or else from a bounded pool of daemon threads shared by all
+ * Transports.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.transport.async.limit">mail.transport.async.limit</A></TD>
+ * <TD>int</TD>
+ * <TD>
+ * The maximum number of messages passed to the
+ * {@link jakarta.mail.Transport#sendAsync sendAsync} method of a Transport
+ * that may be waiting to be sent.  If the limit is reached,
+ * <code>sendAsync</code> blocks until a message has been sent.
+ * Default is 100.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
  * <TD><A ID="mail.event.scope">mail.event.scope</A></TD>
  * <TD>String</TD>
  * <TD>
@@ -282,6 +345,43 @@
  * </TD>
  * </TR>
  *
+ * <TR>
+ * <TD><A ID="mail.event.dispatch">mail.event.dispatch</A></TD>
+ * <TD>String</TD>
+ * <TD>
+ * If this property is set to "shared", event queues don't keep a
+ * dispatcher running while they are idle.  Instead, when events are
+ * queued, a task that calls the listeners for the queued events is run
+ * using the <code>mail.event.executor</code> Executor, or by default
+ * in a virtual thread if the JDK supports them, or else in a thread of
+ * a bounded pool of daemon threads.  Events of each event queue are still delivered one at
+ * a time, in order.  This avoids a thread per event queue when many
+ * Stores or Folders are open.
+ * By default, each event queue has its own dispatcher.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.search.parallelism">mail.search.parallelism</A></TD>
+ * <TD>int</TD>
+ * <TD>
+ * The number of partitions that the client-side
+ * {@link jakarta.mail.Folder#search(jakarta.mail.search.SearchTerm, jakarta.mail.Message[]) Folder.search}
+ * implementation matches concurrently.
+ * Default is 1, which matches all messages in the calling thread.
+ * </TD>
+ * </TR>
+ *
+ * <TR>
+ * <TD><A ID="mail.search.executor">mail.search.executor</A></TD>
+ * <TD>java.util.concurrent.Executor</TD>
+ * <TD>
+ * The Executor used to match the partitions of a parallel search.
+ * If not set, a pool shared by all folders is used, which runs
+ * each partition in a virtual thread if the JDK supports them.
+ * </TD>
+ * </TR>
+ *
  * </TABLE>
  *
  * <P>
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2023 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -35,6 +35,12 @@ public final class AndTerm extends SearchTerm {
      */
     private SearchTerm[] terms;
 
+    /**
+     * The terms in the order in which they are evaluated,
+     * computed on first use.
+     */
+    private transient volatile SearchTerm[] compiled;
+
     private static final long serialVersionUID = -3583274505380989582L;
 
     /**
@@ -68,11 +74,20 @@ public final class AndTerm extends SearchTerm {
         return terms.clone();
     }
 
+    /**
+     * Return the search terms without copying them.
+     */
+    SearchTerm[] terms() {
+        return terms;
+    }
+
     /**
      * The AND operation. <p>
      *
      * The terms specified in the constructor are applied to
      * the given object and the AND operator is applied to their results.
+     * Nested AND terms are flattened and cheap terms, such as flag or
+     * size comparisons, are applied before header and body terms.
      *
      * @param msg The specified SearchTerms are applied to this Message
      *            and the AND operator is applied to their results.
@@ -80,8 +95,11 @@ public final class AndTerm extends SearchTerm {
      */
     @Override
     public boolean match(Message msg) {
-        for (int i = 0; i < terms.length; i++)
-            if (!terms[i].match(msg))
+        SearchTerm[] t = compiled;
+        if (t == null)
+            compiled = t = SearchTermCompiler.compileAnd(terms);
+        for (int i = 0; i < t.length; i++)
+            if (!t[i].match(msg))
                 return false;
         return true;
     }
@@ -20,14 +20,29 @@ import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Multipart;
 import jakarta.mail.Part;
+import jakarta.mail.internet.ContentType;
+import jakarta.mail.internet.MimeUtility;
+import jakarta.mail.internet.ParseException;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 
 /**
  * This class implements searches on a message body.
  * All parts of the message that are of MIME type "text/*" are searched.
  * The pattern is a simple string that must appear as a substring in
- * the message body.
+ * the message body. <p>
+ *
+ * Text parts are read using <code>getInputStream</code> and decoded
+ * using the charset of the part, a chunk at a time, so the content of
+ * large parts is neither held in memory as a whole nor cached by the
+ * part.  If the charset isn't supported, <code>getContent</code> is
+ * used instead.
  *
  * @author Bill Shannon
  * @author John Mani
@@ -36,6 +51,9 @@ public final class BodyTerm extends StringTerm {
 
     private static final long serialVersionUID = -4888862527916911385L;
 
+    // the number of characters of text searched at a time
+    private static final int CHUNK_SIZE = 8192;
+
     /**
      * Constructor
      *
@@ -54,46 +72,96 @@ public final class BodyTerm extends StringTerm {
      */
     @Override
     public boolean match(Message msg) {
-        return matchPart(msg);
+        return matchPart(msg, matcher());
     }
 
     /**
      * Search all the parts of the message for any text part
      * that matches the pattern.
      */
-    private boolean matchPart(Part p) {
+    static boolean matchPart(Part p, StringMatcher matcher) {
         try {
             /*
              * Using isMimeType to determine the content type avoids
              * fetching the actual content data until we need it.
              */
             if (p.isMimeType("text/*")) {
+                Charset cs = charset(p);
+                if (cs != null)
+                    return matchStream(p, cs, matcher);
                 String s = (String) p.getContent();
                 if (s == null)
                     return false;
-                /*
-                 * We invoke our superclass' (i.e., StringTerm) match method.
-                 * Note however that StringTerm.match() is not optimized
-                 * for substring searches in large string buffers. We really
-                 * need to have a StringTerm subclass, say BigStringTerm,
-                 * with its own match() method that uses a better algorithm ..
-                 * and then subclass BodyTerm from BigStringTerm.
-                 */
-                return super.match(s);
+                return matcher.find(s);
             } else if (p.isMimeType("multipart/*")) {
                 Multipart mp = (Multipart) p.getContent();
                 int count = mp.getCount();
                 for (int i = 0; i < count; i++)
-                    if (matchPart(mp.getBodyPart(i)))
+                    if (matchPart(mp.getBodyPart(i), matcher))
                         return true;
             } else if (p.isMimeType("message/rfc822")) {
-                return matchPart((Part) p.getContent());
+                return matchPart((Part) p.getContent(), matcher);
             }
         } catch (MessagingException | RuntimeException | IOException ex) {
         }
         return false;
     }
 
+    /**
+     * Return the charset of the text part, or null if it isn't supported.
+     */
+    private static Charset charset(Part p) throws MessagingException {
+        String ct = p.getContentType();
+        String charset = null;
+        if (ct != null) {
+            try {
+                charset = new ContentType(ct).getParameter("charset");
+            } catch (ParseException pex) {
+                // ignore it, like the text content handler does
+            }
+        }
+        if (charset == null)
+            charset = "us-ascii";
+        try {
+            return Charset.forName(MimeUtility.javaCharset(charset));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Search the decoded text of the part in chunks, rather than getting
+     * the content as one String.  The end of each chunk is kept as the
+     * start of the next, so that matches that span chunks are found.
+     * The content is not cached.
+     */
+    private static boolean matchStream(Part p, Charset cs,
+                                       StringMatcher matcher)
+            throws MessagingException, IOException {
+        int overlap = matcher.maxLength() - 1;
+        if (overlap < 0)
+            return true;        // the empty string matches anything
+        char[] buf = new char[Math.max(CHUNK_SIZE, 2 * overlap)];
+        CharBuffer text = CharBuffer.wrap(buf);
+        CharsetDecoder decoder = cs.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try (Reader r = new InputStreamReader(p.getInputStream(), decoder)) {
+            int len = 0;
+            int n;
+            while ((n = r.read(buf, len, buf.length - len)) >= 0) {
+                len += n;
+                if (len < buf.length)
+                    continue;   // fill the buffer before searching
+                if (matcher.find(text, 0, len))
+                    return true;
+                System.arraycopy(buf, len - overlap, buf, 0, overlap);
+                len = overlap;
+            }
+            return matcher.find(text, 0, len);
+        }
+    }
+
     /**
      * Equality comparison.
      */
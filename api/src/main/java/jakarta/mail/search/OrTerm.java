@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2023 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -34,6 +34,12 @@ public final class OrTerm extends SearchTerm {
      */
     private SearchTerm[] terms;
 
+    /**
+     * The terms in the order in which they are evaluated,
+     * computed on first use.
+     */
+    private transient volatile SearchTerm[] compiled;
+
     private static final long serialVersionUID = 5380534067523646936L;
 
     /**
@@ -67,11 +73,20 @@ public final class OrTerm extends SearchTerm {
         return terms.clone();
     }
 
+    /**
+     * Return the search terms without copying them.
+     */
+    SearchTerm[] terms() {
+        return terms;
+    }
+
     /**
      * The OR operation. <p>
      *
      * The terms specified in the constructor are applied to
      * the given object and the OR operator is applied to their results.
+     * Nested OR terms are flattened and cheap terms, such as flag or
+     * size comparisons, are applied before header and body terms.
      *
      * @param msg The specified SearchTerms are applied to this Message
      *            and the OR operator is applied to their results.
@@ -80,8 +95,11 @@ public final class OrTerm extends SearchTerm {
 
     @Override
     public boolean match(Message msg) {
-        for (int i = 0; i < terms.length; i++)
-            if (terms[i].match(msg))
+        SearchTerm[] t = compiled;
+        if (t == null)
+            compiled = t = SearchTermCompiler.compileOr(terms);
+        for (int i = 0; i < t.length; i++)
+            if (t[i].match(msg))
                 return true;
         return false;
     }
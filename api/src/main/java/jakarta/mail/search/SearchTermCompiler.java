@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalizes the operands of the logical search terms so that they
+ * can be evaluated efficiently.  Nested terms of the same kind are
+ * flattened and the operands are ordered so that terms that only need
+ * data a Message typically has at hand (flags, message number, size)
+ * are evaluated before terms that need the headers or the body. <p>
+ *
+ * Terms of equal cost keep their declaration order.  Terms that are
+ * not part of this package are considered the most expensive. <p>
+ *
+ * If an OR has several SubjectTerms or several BodyTerms as operands,
+ * they are replaced by a single term that searches the subject or body
+ * for all of their patterns at once.
+ */
+final class SearchTermCompiler {
+
+    // the relative cost of evaluating a term, cheapest first
+    private static final int COST_FLAGS = 0;
+    private static final int COST_ENVELOPE = 1;
+    private static final int COST_HEADER = 2;
+    private static final int COST_ADDRESS = 3;
+    private static final int COST_BODY = 4;
+    private static final int COST_UNKNOWN = 5;
+
+    // the number of similar StringTerms worth searching for at once
+    private static final int GROUP_MIN = 3;
+
+    private static final Comparator<SearchTerm> BY_COST =
+            Comparator.comparingInt(SearchTermCompiler::cost);
+
+    private SearchTermCompiler() {
+    }
+
+    /**
+     * Compile the operands of an AND operation.
+     *
+     * @param terms the operands
+     * @return the flattened operands, cheapest first
+     */
+    static SearchTerm[] compileAnd(SearchTerm[] terms) {
+        List<SearchTerm> flat = new ArrayList<>(terms.length);
+        flattenAnd(terms, flat);
+        return sort(flat);
+    }
+
+    /**
+     * Compile the operands of an OR operation.
+     *
+     * @param terms the operands
+     * @return the flattened operands, cheapest first
+     */
+    static SearchTerm[] compileOr(SearchTerm[] terms) {
+        List<SearchTerm> flat = new ArrayList<>(terms.length);
+        flattenOr(terms, flat);
+        return sort(group(flat));
+    }
+
+    private static void flattenAnd(SearchTerm[] terms, List<SearchTerm> flat) {
+        for (SearchTerm t : terms) {
+            if (t instanceof AndTerm)
+                flattenAnd(((AndTerm) t).terms(), flat);
+            else
+                flat.add(t);
+        }
+    }
+
+    private static void flattenOr(SearchTerm[] terms, List<SearchTerm> flat) {
+        for (SearchTerm t : terms) {
+            if (t instanceof OrTerm)
+                flattenOr(((OrTerm) t).terms(), flat);
+            else
+                flat.add(t);
+        }
+    }
+
+    /**
+     * Replace SubjectTerms or BodyTerms with the same ignoreCase flag by
+     * a StringTermGroup, at the position of the first of them.
+     */
+    private static List<SearchTerm> group(List<SearchTerm> flat) {
+        Map<List<Object>, List<StringTerm>> similar = new LinkedHashMap<>();
+        for (SearchTerm t : flat) {
+            if (t instanceof SubjectTerm || t instanceof BodyTerm) {
+                StringTerm st = (StringTerm) t;
+                similar.computeIfAbsent(
+                        Arrays.asList(st.getClass(), st.getIgnoreCase()),
+                        k -> new ArrayList<>()).add(st);
+            }
+        }
+        Map<SearchTerm, SearchTerm> replace = new IdentityHashMap<>();
+        for (List<StringTerm> g : similar.values()) {
+            if (g.size() < GROUP_MIN)
+                continue;
+            SearchTerm group = new StringTermGroup(g.toArray(new StringTerm[0]));
+            for (StringTerm t : g)
+                replace.put(t, t == g.get(0) ? group : null);
+        }
+        if (replace.isEmpty())
+            return flat;
+        List<SearchTerm> grouped = new ArrayList<>(flat.size());
+        for (SearchTerm t : flat) {
+            if (!replace.containsKey(t))
+                grouped.add(t);
+            else if (replace.get(t) != null)
+                grouped.add(replace.get(t));
+        }
+        return grouped;
+    }
+
+    private static SearchTerm[] sort(List<SearchTerm> flat) {
+        SearchTerm[] sorted = flat.toArray(new SearchTerm[0]);
+        Arrays.sort(sorted, BY_COST);   // stable
+        return sorted;
+    }
+
+    /**
+     * Estimate the relative cost of evaluating the term.
+     * A logical term costs as much as its most expensive operand.
+     */
+    static int cost(SearchTerm term) {
+        if (term instanceof FlagTerm || term instanceof MessageNumberTerm)
+            return COST_FLAGS;
+        if (term instanceof SizeTerm || term instanceof ReceivedDateTerm)
+            return COST_ENVELOPE;
+        if (term instanceof SubjectTerm || term instanceof HeaderTerm ||
+                term instanceof MessageIDTerm || term instanceof SentDateTerm)
+            return COST_HEADER;
+        if (term instanceof AddressTerm || term instanceof AddressStringTerm)
+            return COST_ADDRESS;
+        if (term instanceof BodyTerm)
+            return COST_BODY;
+        if (term instanceof StringTermGroup)
+            return cost(((StringTermGroup) term).terms()[0]);
+        if (term instanceof NotTerm)
+            return cost(((NotTerm) term).getTerm());
+        if (term instanceof AndTerm)
+            return maxCost(((AndTerm) term).terms());
+        if (term instanceof OrTerm)
+            return maxCost(((OrTerm) term).terms());
+        return COST_UNKNOWN;
+    }
+
+    private static int maxCost(SearchTerm[] terms) {
+        int max = COST_FLAGS;
+        for (SearchTerm t : terms) {
+            max = Math.max(max, cost(t));
+            if (max == COST_UNKNOWN)
+                break;
+        }
+        return max;
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Package private class that finds one or more patterns in text. <p>
+ *
+ * Characters are compared the way <code>String.regionMatches</code>
+ * compares them: when ignoring case, two characters are equal if they
+ * are equal after converting each to upper case and then to lower case.
+ * A single pattern is found using the Boyer-Moore-Horspool algorithm
+ * on the folded characters, and a set of patterns is found in a single
+ * pass using the Aho-Corasick algorithm.
+ */
+abstract class StringMatcher {
+
+    /**
+     * The pattern, or null if this matcher finds several patterns.
+     */
+    final String pattern;
+
+    /**
+     * Is case ignored?
+     */
+    final boolean ignoreCase;
+
+    // lower case of the upper case of the ASCII characters
+    private static final char[] ASCII_FOLD = new char[128];
+
+    static {
+        for (char c = 0; c < 128; c++)
+            ASCII_FOLD[c] = Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    StringMatcher(String pattern, boolean ignoreCase) {
+        this.pattern = pattern;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Create a matcher for the pattern.
+     *
+     * @param pattern    the pattern
+     * @param ignoreCase ignore case?
+     * @return the matcher
+     */
+    static StringMatcher compile(String pattern, boolean ignoreCase) {
+        if (ignoreCase && hasSurrogate(pattern))
+            return new RegionMatcher(pattern);
+        return new Horspool(pattern, ignoreCase);
+    }
+
+    /**
+     * Create a matcher that finds any of the patterns.
+     *
+     * @param patterns   the patterns
+     * @param ignoreCase ignore case?
+     * @return the matcher
+     */
+    static StringMatcher compile(String[] patterns, boolean ignoreCase) {
+        if (patterns.length == 1)
+            return compile(patterns[0], ignoreCase);
+        for (String p : patterns) {
+            if (p.isEmpty() || (ignoreCase && hasSurrogate(p)))
+                return new AnyMatcher(patterns, ignoreCase);
+        }
+        return new AhoCorasick(patterns, ignoreCase);
+    }
+
+    /**
+     * Is any of the characters in <code>s[start, end)</code> part of a
+     * match of the pattern(s) that lies entirely within that range?
+     *
+     * @param s     the text
+     * @param start the index of the first character
+     * @param end   the index after the last character
+     * @return true if a match is found
+     */
+    abstract boolean find(CharSequence s, int start, int end);
+
+    /**
+     * Is there a match in the text?
+     */
+    final boolean find(CharSequence s) {
+        return find(s, 0, s.length());
+    }
+
+    /**
+     * The length of the longest pattern.
+     */
+    abstract int maxLength();
+
+    /**
+     * Fold the character for comparison.
+     */
+    final char fold(char c) {
+        if (!ignoreCase)
+            return c;
+        if (c < 128)
+            return ASCII_FOLD[c];
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static boolean hasSurrogate(String s) {
+        for (int i = 0; i < s.length(); i++)
+            if (Character.isSurrogate(s.charAt(i)))
+                return true;
+        return false;
+    }
+
+    /**
+     * Boyer-Moore-Horspool search for a single pattern. The shift table
+     * is indexed by the low 8 bits of the folded character; characters
+     * that share an entry use the smallest shift of any of them.
+     */
+    private static final class Horspool extends StringMatcher {
+        private final char[] pat;
+        private final int[] shift = new int[256];
+
+        Horspool(String pattern, boolean ignoreCase) {
+            super(pattern, ignoreCase);
+            int m = pattern.length();
+            pat = new char[m];
+            for (int i = 0; i < m; i++)
+                pat[i] = fold(pattern.charAt(i));
+            Arrays.fill(shift, Math.max(m, 1));
+            for (int i = 0; i < m - 1; i++)
+                shift[pat[i] & 0xff] = m - 1 - i;
+        }
+
+        @Override
+        boolean find(CharSequence s, int start, int end) {
+            char[] pat = this.pat;
+            int last = pat.length - 1;
+            if (last < 0)
+                return start <= end;
+            char lastChar = pat[last];
+            for (int i = start + last; i < end; ) {
+                char c = fold(s.charAt(i));
+                if (c == lastChar) {
+                    int j = last - 1;
+                    int k = i - 1;
+                    while (j >= 0 && fold(s.charAt(k)) == pat[j]) {
+                        j--;
+                        k--;
+                    }
+                    if (j < 0)
+                        return true;
+                }
+                i += shift[c & 0xff];
+            }
+            return false;
+        }
+
+        @Override
+        int maxLength() {
+            return pat.length;
+        }
+    }
+
+    /**
+     * A case-insensitive search for a pattern that includes surrogates,
+     * which String.regionMatches compares as code points.
+     */
+    private static final class RegionMatcher extends StringMatcher {
+
+        RegionMatcher(String pattern) {
+            super(pattern, true);
+        }
+
+        @Override
+        boolean find(CharSequence s, int start, int end) {
+            String t = s.subSequence(start, end).toString();
+            int plen = pattern.length();
+            int len = t.length() - plen;
+            for (int i = 0; i <= len; i++) {
+                if (t.regionMatches(true, i, pattern, 0, plen))
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        int maxLength() {
+            return pattern.length();
+        }
+    }
+
+    /**
+     * Finds any of several patterns by trying each of them in turn.
+     * Used for patterns that Aho-Corasick can't handle.
+     */
+    private static final class AnyMatcher extends StringMatcher {
+        private final StringMatcher[] matchers;
+        private final int maxLength;
+
+        AnyMatcher(String[] patterns, boolean ignoreCase) {
+            super(null, ignoreCase);
+            matchers = new StringMatcher[patterns.length];
+            int max = 0;
+            for (int i = 0; i < patterns.length; i++) {
+                matchers[i] = compile(patterns[i], ignoreCase);
+                max = Math.max(max, patterns[i].length());
+            }
+            maxLength = max;
+        }
+
+        @Override
+        boolean find(CharSequence s, int start, int end) {
+            for (StringMatcher m : matchers)
+                if (m.find(s, start, end))
+                    return true;
+            return false;
+        }
+
+        @Override
+        int maxLength() {
+            return maxLength;
+        }
+    }
+
+    /**
+     * Aho-Corasick search for any of several non-empty patterns.
+     * The transitions of each state are kept in sorted arrays;
+     * the root state also has a direct table for ASCII characters.
+     */
+    private static final class AhoCorasick extends StringMatcher {
+        private final char[][] keys;    // transition characters per state
+        private final int[][] targets;  // transition targets per state
+        private final int[] fail;       // failure link per state
+        private final boolean[] accept; // does a pattern end here?
+        private final int[] rootAscii = new int[128];
+        private final int maxLength;
+        private int count;
+
+        AhoCorasick(String[] patterns, boolean ignoreCase) {
+            super(null, ignoreCase);
+            int size = 1;
+            int max = 0;
+            for (String p : patterns) {
+                size += p.length();
+                max = Math.max(max, p.length());
+            }
+            maxLength = max;
+            keys = new char[size][];
+            targets = new int[size][];
+            fail = new int[size];
+            accept = new boolean[size];
+            count = 1;
+            keys[0] = new char[0];
+            targets[0] = new int[0];
+
+            // build the trie
+            for (String p : patterns) {
+                int state = 0;
+                for (int i = 0; i < p.length(); i++) {
+                    char c = fold(p.charAt(i));
+                    int next = next(state, c);
+                    if (next < 0)
+                        next = add(state, c);
+                    state = next;
+                }
+                accept[state] = true;
+            }
+
+            // compute the failure links breadth first
+            List<Integer> queue = new ArrayList<>();
+            for (int t : targets[0])
+                queue.add(t);   // fail[t] == 0
+            for (int qi = 0; qi < queue.size(); qi++) {
+                int state = queue.get(qi);
+                for (int k = 0; k < keys[state].length; k++) {
+                    char c = keys[state][k];
+                    int child = targets[state][k];
+                    int f = fail[state];
+                    int n;
+                    while ((n = next(f, c)) < 0 && f != 0)
+                        f = fail[f];
+                    fail[child] = n >= 0 ? n : 0;
+                    accept[child] |= accept[fail[child]];
+                    queue.add(child);
+                }
+            }
+
+            for (char c = 0; c < 128; c++)
+                rootAscii[c] = Math.max(next(0, c), 0);
+        }
+
+        private int add(int state, char c) {
+            int s = count++;
+            keys[s] = new char[0];
+            targets[s] = new int[0];
+            char[] k = keys[state];
+            int[] t = targets[state];
+            int pos = -(Arrays.binarySearch(k, c) + 1);
+            char[] nk = new char[k.length + 1];
+            int[] nt = new int[t.length + 1];
+            System.arraycopy(k, 0, nk, 0, pos);
+            System.arraycopy(t, 0, nt, 0, pos);
+            nk[pos] = c;
+            nt[pos] = s;
+            System.arraycopy(k, pos, nk, pos + 1, k.length - pos);
+            System.arraycopy(t, pos, nt, pos + 1, t.length - pos);
+            keys[state] = nk;
+            targets[state] = nt;
+            return s;
+        }
+
+        private int next(int state, char c) {
+            char[] k = keys[state];
+            if (k.length < 8) {
+                for (int i = 0; i < k.length; i++)
+                    if (k[i] == c)
+                        return targets[state][i];
+                return -1;
+            }
+            int i = Arrays.binarySearch(k, c);
+            return i >= 0 ? targets[state][i] : -1;
+        }
+
+        @Override
+        boolean find(CharSequence s, int start, int end) {
+            int state = 0;
+            for (int i = start; i < end; i++) {
+                char c = fold(s.charAt(i));
+                int n;
+                if (state == 0) {
+                    n = c < 128 ? rootAscii[c] : Math.max(next(0, c), 0);
+                } else {
+                    while ((n = next(state, c)) < 0 && state != 0)
+                        state = fail[state];
+                    if (n < 0)
+                        n = 0;
+                }
+                state = n;
+                if (accept[state])
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        int maxLength() {
+            return maxLength;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2023 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -41,6 +41,12 @@ public abstract class StringTerm extends SearchTerm {
 
     private static final long serialVersionUID = 1274042129007696269L;
 
+    /**
+     * The matcher for the pattern, compiled on first use.
+     * Subclasses may change the pattern, which invalidates it.
+     */
+    private transient volatile StringMatcher matcher;
+
     /**
      * Construct a StringTerm with the given pattern.
      * Case will be ignored.
@@ -88,13 +94,17 @@ public abstract class StringTerm extends SearchTerm {
      * @return true if given string matches this pattern; otherwise false
      */
     protected boolean match(String s) {
-        int len = s.length() - pattern.length();
-        for (int i = 0; i <= len; i++) {
-            if (s.regionMatches(ignoreCase, i,
-                    pattern, 0, pattern.length()))
-                return true;
-        }
-        return false;
+        return matcher().find(s);
+    }
+
+    /**
+     * Return the matcher for the current pattern.
+     */
+    StringMatcher matcher() {
+        StringMatcher m = matcher;
+        if (m == null || m.pattern != pattern || m.ignoreCase != ignoreCase)
+            matcher = m = StringMatcher.compile(pattern, ignoreCase);
+        return m;
     }
 
     /**
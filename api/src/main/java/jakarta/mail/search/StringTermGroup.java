@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.search;
+
+import jakarta.mail.Message;
+
+/**
+ * Package private term that the compiler substitutes for several
+ * SubjectTerms or several BodyTerms that are operands of the same OR.
+ * The subject or body is searched once for all the patterns.
+ */
+final class StringTermGroup extends SearchTerm {
+
+    private static final long serialVersionUID = -2101364926522925112L;
+
+    /**
+     * The terms replaced by this group, all of the same class
+     * and with the same ignoreCase flag.
+     */
+    private final StringTerm[] terms;
+
+    private final transient StringMatcher matcher;
+
+    StringTermGroup(StringTerm[] terms) {
+        this.terms = terms;
+        String[] patterns = new String[terms.length];
+        for (int i = 0; i < terms.length; i++)
+            patterns[i] = terms[i].getPattern();
+        matcher = StringMatcher.compile(patterns, terms[0].getIgnoreCase());
+    }
+
+    /**
+     * The terms replaced by this group.
+     */
+    StringTerm[] terms() {
+        return terms;
+    }
+
+    @Override
+    public boolean match(Message msg) {
+        if (terms[0] instanceof SubjectTerm)
+            return SubjectTerm.match(msg, matcher);
+        return BodyTerm.matchPart(msg, matcher);
+    }
+}
@@ -49,6 +49,13 @@ public final class SubjectTerm extends StringTerm {
      */
     @Override
     public boolean match(Message msg) {
+        return match(msg, matcher());
+    }
+
+    /**
+     * Apply the matcher to the message's subject.
+     */
+    static boolean match(Message msg, StringMatcher matcher) {
         String subj;
 
         try {
@@ -60,7 +67,7 @@ public final class SubjectTerm extends StringTerm {
         if (subj == null)
             return false;
 
-        return super.match(subj);
+        return matcher.find(subj);
     }
 
     /**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -16,13 +16,90 @@
 
 package jakarta.mail.util;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 class FactoryFinder {
 
+    /**
+     * Resolved factories keyed by factory type and the effective class loader
+     * used for the lookup. The class loader is weakly referenced, so the
+     * entry goes away once the loader is collected; a factory loaded by that
+     * class loader keeps it reachable, so {@link #invalidate} has to be used
+     * to discard it.
+     */
+    private static final ConcurrentMap<CacheKey, CacheValue> CACHE = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ClassLoader> STALE = new ReferenceQueue<>();
+
+    /**
+     * Same as {@link #find(Class)}, but the result is cached per
+     * thread context class loader. The cached instance is discarded
+     * when the system property naming the factory class changes.
+     *
+     * @param factoryClass factory abstract class or interface to be found
+     * @return the cached or newly created factory
+     * @throws RuntimeException if there is an error
+     */
+    static <T> T findCached(Class<T> factoryClass) throws RuntimeException {
+        expungeStaleEntries();
+        ClassLoader loader = cacheLoader(factoryClass);
+        String property = fromSystemProperty(factoryClass.getName());
+        CacheValue value = CACHE.get(new CacheKey(factoryClass, loader, null));
+        if (value != null && Objects.equals(property, value.property)) {
+            return factoryClass.cast(value.factory);
+        }
+
+        T result = find(factoryClass);
+        CACHE.put(new CacheKey(factoryClass, loader, STALE),
+                new CacheValue(result, property));
+        return result;
+    }
+
+    /**
+     * Discards every cached factory that was resolved for the given
+     * class loader. A null class loader clears the whole cache.
+     *
+     * @param loader the class loader, or null
+     */
+    static void invalidate(ClassLoader loader) {
+        if (loader == null) {
+            CACHE.clear();
+        } else {
+            CACHE.keySet().removeIf(k -> k.get() == loader);
+        }
+        expungeStaleEntries();
+    }
+
+    /**
+     * The class loader that determines the result of {@link #find(Class)}.
+     * A missing context class loader behaves like the API class loader.
+     */
+    private static ClassLoader cacheLoader(Class<?> factoryClass) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = factoryClass.getClassLoader();
+            if (loader == null) {
+                loader = ClassLoader.getSystemClassLoader();
+            }
+        }
+        return loader;
+    }
+
+    private static void expungeStaleEntries() {
+        Reference<? extends ClassLoader> ref;
+        while ((ref = STALE.poll()) != null) {
+            CACHE.remove(ref);
+        }
+    }
+
     /**
      * Finds the implementation {@code Class} object for the given
      * factory type.
@@ -169,5 +246,46 @@ class FactoryFinder {
             throw new IllegalStateException("Cannot load " + factory + " as ServiceLoader", t);
         }
     }
-}
 
+    private static final class CacheKey extends WeakReference<ClassLoader> {
+        private final Class<?> factoryClass;
+        private final int hash;
+
+        CacheKey(Class<?> factoryClass, ClassLoader loader,
+                ReferenceQueue<ClassLoader> queue) {
+            super(loader, queue);
+            this.factoryClass = factoryClass;
+            this.hash = 31 * factoryClass.hashCode()
+                    + System.identityHashCode(loader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            ClassLoader loader = get();
+            return loader != null && loader == other.get()
+                    && factoryClass == other.factoryClass;
+        }
+    }
+
+    private static final class CacheValue {
+        private final Object factory;
+        private final String property;
+
+        CacheValue(Object factory, String property) {
+            this.factory = factory;
+            this.property = property;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.util;
+
+import jakarta.mail.internet.SharedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A <code>SharedByteBufferInputStream</code> is an
+ * <code>InputStream</code> that reads the data in a
+ * <code>ByteBuffer</code>, which may be a heap buffer or a direct buffer.
+ * It supports the <code>mark</code> and <code>reset</code> methods and
+ * the <code>newStream</code> method that allows you to create other
+ * streams that represent subsets of the data. <p>
+ *
+ * The data is never copied.  Each stream reads its own read-only slice
+ * of the buffer, so messages held in direct buffers can be parsed by
+ * <code>MimeMessage</code> and <code>MimeMultipart</code>, and the parts
+ * read lazily, without first copying the message into a byte array.
+ * Streams created by <code>newStream</code> can be read by different
+ * threads, but a single stream must not be used by more than one thread
+ * at a time.  The content of the buffer must not be changed while any
+ * of the streams is in use.
+ *
+ * @see SharedByteArrayInputStream
+ * @since JavaMail 2.2
+ */
+public class SharedByteBufferInputStream extends InputStream
+        implements SharedInputStream {
+
+    /**
+     * The part of the buffer read by this stream,
+     * or null if the stream is closed.
+     */
+    private ByteBuffer buf;
+
+    /**
+     * The marked position in the buffer.
+     */
+    private int mark = 0;
+
+    /**
+     * Create a SharedByteBufferInputStream representing the bytes
+     * between the position and the limit of the buffer.  The position
+     * and limit of the buffer itself are not changed by reading the
+     * stream.
+     *
+     * @param buf the buffer
+     */
+    public SharedByteBufferInputStream(ByteBuffer buf) {
+        this.buf = buf.asReadOnlyBuffer().slice();
+    }
+
+    /**
+     * Check to make sure that this stream has not been closed
+     */
+    private ByteBuffer ensureOpen() throws IOException {
+        ByteBuffer b = buf;
+        if (b == null)
+            throw new IOException("Stream closed");
+        return b;
+    }
+
+    /**
+     * See the general contract of the <code>read</code>
+     * method of <code>InputStream</code>.
+     *
+     * @return the next byte of data, or <code>-1</code> if the end of the
+     * stream is reached.
+     * @throws IOException if this stream has been closed.
+     */
+    @Override
+    public int read() throws IOException {
+        ByteBuffer b = ensureOpen();
+        return b.hasRemaining() ? b.get() & 0xff : -1;
+    }
+
+    /**
+     * Reads bytes from this stream into the specified byte array,
+     * starting at the given offset.
+     *
+     * @param b   destination buffer.
+     * @param off offset at which to start storing bytes.
+     * @param len maximum number of bytes to read.
+     * @return the number of bytes read, or <code>-1</code> if the end of
+     * the stream has been reached.
+     * @throws IOException if this stream has been closed.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ByteBuffer bb = ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        if (len == 0)
+            return 0;
+        int n = Math.min(len, bb.remaining());
+        if (n == 0)
+            return -1;
+        bb.get(b, off, n);
+        return n;
+    }
+
+    /**
+     * See the general contract of the <code>skip</code>
+     * method of <code>InputStream</code>.
+     *
+     * @param n the number of bytes to be skipped.
+     * @return the actual number of bytes skipped.
+     * @throws IOException if this stream has been closed.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        ByteBuffer b = ensureOpen();
+        if (n <= 0)
+            return 0;
+        int k = (int) Math.min(n, b.remaining());
+        b.position(b.position() + k);
+        return k;
+    }
+
+    /**
+     * Returns the number of bytes that can be read from this input
+     * stream without blocking.
+     *
+     * @return the number of bytes remaining in this stream.
+     * @throws IOException if this stream has been closed.
+     */
+    @Override
+    public int available() throws IOException {
+        return ensureOpen().remaining();
+    }
+
+    /**
+     * See the general contract of the <code>mark</code>
+     * method of <code>InputStream</code>.  The read limit
+     * is ignored; all the data remains available.
+     *
+     * @param readlimit the maximum limit of bytes that can be read before
+     *                  the mark position becomes invalid.
+     * @see #reset()
+     */
+    @Override
+    public void mark(int readlimit) {
+        ByteBuffer b = buf;
+        if (b != null)
+            mark = b.position();
+    }
+
+    /**
+     * See the general contract of the <code>reset</code>
+     * method of <code>InputStream</code>.
+     *
+     * @throws IOException if this stream has been closed.
+     * @see #mark(int)
+     */
+    @Override
+    public void reset() throws IOException {
+        ensureOpen().position(mark);
+    }
+
+    /**
+     * Tests if this input stream supports the <code>mark</code>
+     * and <code>reset</code> methods.  This method always returns
+     * <code>true</code>.
+     *
+     * @return <code>true</code>
+     */
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * Closes this input stream.  Other streams sharing the same
+     * buffer are not affected.
+     */
+    @Override
+    public void close() {
+        buf = null;
+    }
+
+    /**
+     * Return the current position in the InputStream, as an
+     * offset from the beginning of the InputStream.
+     *
+     * @return the current position
+     */
+    @Override
+    public long getPosition() {
+        ByteBuffer b = buf;
+        if (b == null)
+            throw new RuntimeException("Stream closed");
+        return b.position();
+    }
+
+    /**
+     * Return a new InputStream representing a subset of the data
+     * from this InputStream, starting at <code>start</code> (inclusive)
+     * up to <code>end</code> (exclusive).  <code>start</code> must be
+     * non-negative.  If <code>end</code> is -1, the new stream ends
+     * at the same place as this stream.  The returned InputStream
+     * will also implement the SharedInputStream interface.
+     *
+     * @param start the starting position
+     * @param end   the ending position + 1
+     * @return the new stream
+     * @throws IllegalArgumentException if <code>start</code> or
+     *          <code>end</code> is outside this stream
+     */
+    @Override
+    public InputStream newStream(long start, long end) {
+        ByteBuffer b = buf;
+        if (b == null)
+            throw new RuntimeException("Stream closed");
+        if (start < 0)
+            throw new IllegalArgumentException("start < 0");
+        if (end == -1)
+            end = b.limit();
+        // a buffer can't be longer than Integer.MAX_VALUE bytes
+        if (end > b.limit() || start > end)
+            throw new IllegalArgumentException("start " + start + ", end " +
+                    end + " outside stream of " + b.limit() + " bytes");
+        // don't disturb the position of this stream
+        ByteBuffer slice = b.duplicate();
+        slice.limit((int) end).position((int) start);
+        return new SharedByteBufferInputStream(slice.slice());
+    }
+}
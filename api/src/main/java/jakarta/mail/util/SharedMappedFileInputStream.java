@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A <code>SharedMappedFileInputStream</code> is an
+ * <code>InputStream</code> that reads a file, or a region of a file,
+ * through a memory mapping created with <code>FileChannel.map</code>.
+ * It supports the <code>mark</code> and <code>reset</code> methods and
+ * the <code>newStream</code> method that allows you to create other
+ * streams that represent subsets of the file; see
+ * {@link SharedByteBufferInputStream}. <p>
+ *
+ * Unlike {@link SharedFileInputStream}, the data is not copied into a
+ * buffer of each stream, and streams don't share a file pointer.  Each
+ * stream returned by <code>newStream</code> reads its own slice of the
+ * mapping, so the streams for the parts of a message can be read by
+ * different threads without locking.  A single stream must not be used
+ * by more than one thread at a time. <p>
+ *
+ * The file is only open while it is being mapped.  The mapping itself
+ * remains valid until all the streams that use it are no longer
+ * referenced, whether or not they are closed.  A mapping can be at most
+ * <code>Integer.MAX_VALUE</code> bytes long; use the constructor that
+ * takes a position and size to read a region of a larger file.
+ *
+ * @since JavaMail 2.2
+ */
+public class SharedMappedFileInputStream extends SharedByteBufferInputStream {
+
+    /**
+     * Creates a <code>SharedMappedFileInputStream</code>
+     * for the file.
+     *
+     * @param file the file
+     * @throws IOException for errors opening or mapping the file
+     */
+    public SharedMappedFileInputStream(File file) throws IOException {
+        this(file, 0, -1);
+    }
+
+    /**
+     * Creates a <code>SharedMappedFileInputStream</code>
+     * for the named file.
+     *
+     * @param file the file
+     * @throws IOException for errors opening or mapping the file
+     */
+    public SharedMappedFileInputStream(String file) throws IOException {
+        this(new File(file), 0, -1);
+    }
+
+    /**
+     * Creates a <code>SharedMappedFileInputStream</code> for
+     * <code>size</code> bytes of the file, starting at
+     * <code>position</code>.  If <code>size</code> is -1,
+     * the stream ends at the end of the file.
+     *
+     * @param file     the file
+     * @param position the offset in the file of the first byte to include
+     * @param size     the number of bytes to include, or -1
+     * @throws IOException for errors opening or mapping the file
+     */
+    public SharedMappedFileInputStream(File file, long position, long size)
+            throws IOException {
+        super(map(file, position, size));
+    }
+
+    private static ByteBuffer map(File file, long position, long size)
+            throws IOException {
+        if (position < 0)
+            throw new IllegalArgumentException("position < 0");
+        try (FileChannel fc = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ)) {
+            if (size == -1)
+                size = Math.max(0, fc.size() - position);
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Region too large to map: " + size);
+            return fc.map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -182,11 +182,27 @@ public interface StreamProvider {
      * Creates a stream provider object. The provider is loaded using the
      * {@link ServiceLoader#load(Class)} method. If there are no available
      * service providers, this method throws an IllegalStateException.
-     * Users are recommended to cache the result of this method.
+     * The result is cached per thread context class loader, so
+     * repeated calls from the same application do not repeat the lookup.
      *
      * @return a stream provider
      */
     static StreamProvider provider() {
-        return FactoryFinder.find(StreamProvider.class);
+        return FactoryFinder.findCached(StreamProvider.class);
+    }
+
+    /**
+     * Discards the stream providers cached by {@link #provider()} for the
+     * given thread context class loader, or for all class loaders if null.
+     * A cached provider is discarded by itself once its class loader can
+     * be garbage collected, unless the provider was loaded by that class
+     * loader, which it then keeps reachable.  An application that bundles
+     * its own provider should call this method when it's undeployed.
+     *
+     * @param loader the class loader, or null
+     * @since JavaMail 2.2
+     */
+    static void invalidate(ClassLoader loader) {
+        FactoryFinder.invalidate(loader);
     }
 }
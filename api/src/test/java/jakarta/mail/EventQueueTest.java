@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail;
+
+import jakarta.mail.event.MailEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EventListener;
+import java.util.List;
+import java.util.Properties;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventQueueTest {
+
+    @Test
+    public void sharedQueuesKeepOrderOnOneThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Properties props = new Properties();
+        props.setProperty("mail.event.dispatch", "shared");
+        props.put("mail.event.executor", executor);
+        try {
+            int queues = 50;
+            int events = 200;
+            CountDownLatch done = new CountDownLatch(queues * events);
+            List<List<Integer>> seen = new ArrayList<>();
+            List<EventQueue> qs = new ArrayList<>();
+            for (int i = 0; i < queues; i++) {
+                List<Integer> l = Collections.synchronizedList(new ArrayList<>());
+                seen.add(l);
+                qs.add(EventQueue.create(props));
+            }
+            // more queues than threads, events added from several threads
+            Thread[] producers = new Thread[4];
+            for (int p = 0; p < producers.length; p++) {
+                int first = p;
+                producers[p] = new Thread(() -> {
+                    for (int i = first; i < queues; i += producers.length) {
+                        Vector<EventListener> v = new Vector<>();
+                        v.add(new Recorder(seen.get(i), done));
+                        for (int n = 0; n < events; n++)
+                            qs.get(i).enqueue(new NumberEvent(n), v);
+                    }
+                });
+                producers[p].start();
+            }
+            for (Thread t : producers)
+                t.join();
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            for (List<Integer> l : seen) {
+                assertEquals(events, l.size());
+                for (int n = 0; n < events; n++)
+                    assertEquals(n, (int) l.get(n));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sharedQueueSurvivesTerminate() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("mail.event.dispatch", "shared");
+        EventQueue q = EventQueue.create(props);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+        Vector<EventListener> v = new Vector<>();
+        v.add(new Recorder(seen, done));
+        q.enqueue(new NumberEvent(0), v);
+        q.terminateQueue();
+        q.enqueue(new NumberEvent(1), v);
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(2, seen.size());
+    }
+
+    private static final class Recorder implements EventListener {
+        final List<Integer> seen;
+        final CountDownLatch done;
+
+        Recorder(List<Integer> seen, CountDownLatch done) {
+            this.seen = seen;
+            this.done = done;
+        }
+    }
+
+    private static final class NumberEvent extends MailEvent {
+        private static final long serialVersionUID = 1L;
+
+        final int n;
+
+        NumberEvent(int n) {
+            super(new Object());
+            this.n = n;
+        }
+
+        @Override
+        public void dispatch(Object listener) {
+            Recorder r = (Recorder) listener;
+            r.seen.add(n);
+            r.done.countDown();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2024 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2024, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -16,10 +16,22 @@
 
 package jakarta.mail;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.search.SearchTerm;
+import jakarta.mail.search.SubjectTerm;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 public class FolderTest {
 
     @Test
@@ -36,6 +48,72 @@ public class FolderTest {
         }
     }
 
+    @Test
+    public void parallelSearchKeepsOrder() throws MessagingException {
+        Properties props = new Properties();
+        props.setProperty("mail.search.parallelism", "4");
+        Session session = Session.getInstance(props);
+        Message[] msgs = new Message[103];
+        List<Message> expected = new ArrayList<>();
+        for (int i = 0; i < msgs.length; i++) {
+            final boolean removed = i == 51;
+            msgs[i] = new MimeMessage(session) {
+                @Override
+                public boolean match(SearchTerm term) throws MessagingException {
+                    if (removed)
+                        throw new MessageRemovedException();
+                    return super.match(term);
+                }
+            };
+            msgs[i].setSubject(i % 3 == 0 ? "match " + i : "other " + i);
+            if (i % 3 == 0 && !removed)
+                expected.add(msgs[i]);
+        }
+
+        Folder folder = new CustomFolder(new DummyStore(session, null));
+        assertArrayEquals(expected.toArray(new Message[0]),
+                folder.search(new SubjectTerm("MATCH"), msgs));
+    }
+
+    @Test
+    public void parallelSearchStopsPartitionsOnFailure() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("mail.search.parallelism", "2");
+        Session session = Session.getInstance(props);
+        AtomicInteger matches = new AtomicInteger();
+        Message[] msgs = new Message[10];
+        for (int i = 0; i < msgs.length; i++) {
+            final boolean fail = i == 5;
+            msgs[i] = new MimeMessage(session) {
+                @Override
+                public boolean match(SearchTerm term) {
+                    if (fail)
+                        throw new IllegalStateException("failed");
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    matches.incrementAndGet();
+                    return false;
+                }
+            };
+        }
+
+        Folder folder = new CustomFolder(new DummyStore(session, null));
+        try {
+            folder.search(new SubjectTerm("x"), msgs);
+            fail("exception not thrown");
+        } catch (IllegalStateException ex) {
+            assertEquals("failed", ex.getMessage());
+        }
+        // the other partition has stopped, and doesn't go on matching
+        int n = matches.get();
+        assertTrue(n < 5);
+        Thread.sleep(200);
+        assertEquals(n, matches.get());
+    }
+
     private static class CustomFolder extends Folder {
 
         private boolean closed;
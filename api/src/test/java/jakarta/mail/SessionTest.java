@@ -16,11 +16,15 @@
 
 package jakarta.mail;
 
+import java.lang.ref.WeakReference;
 import java.util.Properties;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class SessionTest {
 
@@ -31,6 +35,84 @@ public class SessionTest {
         assertEquals(Jakarta.class.getName(), provider.getClassName());
     }
 
+    @Test
+    public void serviceFactoryReused() throws Exception {
+        Session session = Session.getInstance(new Properties());
+        session.addProvider(new Provider(Provider.Type.STORE, "public",
+                Public.class.getName(), "Oracle", null));
+        Store s1 = session.getStore("public");
+        Store s2 = session.getStore("public");
+        assertSame(Public.class, s1.getClass());
+        assertNotSame(s1, s2);
+        assertSame(session, ((Public) s2).session);
+        assertEquals("public", s2.getURLName().getProtocol());
+    }
+
+    @Test
+    public void serviceFactoryReplaced() throws Exception {
+        Session session = Session.getInstance(new Properties());
+        session.addProvider(new Provider(Provider.Type.STORE, "public",
+                Public.class.getName(), "Oracle", null));
+        assertSame(Public.class, session.getStore("public").getClass());
+        session.setProvider(new Provider(Provider.Type.STORE, "public",
+                Other.class.getName(), "Oracle", null));
+        assertSame(Other.class, session.getStore("public").getClass());
+    }
+
+    @Test
+    public void serviceFactoryContextClassLoader() throws Exception {
+        Session session = Session.getInstance(new Properties());
+        session.addProvider(new Provider(Provider.Type.STORE, "public",
+                Public.class.getName(), "Oracle", null));
+        assertSame(Public.class, session.getStore("public").getClass());
+        Thread t = Thread.currentThread();
+        ClassLoader ccl = t.getContextClassLoader();
+        t.setContextClassLoader(new ClassLoader(ccl) { });
+        try {
+            assertSame(Public.class, session.getStore("public").getClass());
+        } finally {
+            t.setContextClassLoader(ccl);
+        }
+    }
+
+    @Test
+    public void serviceFactoryDoesNotHoldClassLoader() throws Exception {
+        Session session = Session.getInstance(new Properties());
+        session.addProvider(new Provider(Provider.Type.STORE, "public",
+                Public.class.getName(), "Oracle", null));
+        Thread t = Thread.currentThread();
+        ClassLoader ccl = t.getContextClassLoader();
+        ClassLoader app = new ClassLoader(ccl) { };
+        WeakReference<ClassLoader> ref = new WeakReference<>(app);
+        t.setContextClassLoader(app);
+        try {
+            assertSame(Public.class, session.getStore("public").getClass());
+        } finally {
+            t.setContextClassLoader(ccl);
+        }
+        app = null;
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+        assertSame(Public.class, session.getStore("public").getClass());
+    }
+
+    public static class Public extends Jakarta {
+
+        public Public(Session session, URLName urlname) {
+            super(session, urlname);
+        }
+    }
+
+    public static class Other extends Jakarta {
+
+        public Other(Session session, URLName urlname) {
+            super(session, urlname);
+        }
+    }
+
     public static class Jakarta extends Store {
 
         protected Jakarta(Session session, URLName urlname) {
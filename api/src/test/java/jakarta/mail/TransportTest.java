@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail;
+
+import jakarta.mail.event.TransportAdapter;
+import jakarta.mail.event.TransportEvent;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.NewsAddress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TransportTest {
+
+    @Test
+    public void sendWithoutPoolConnectsEachTime() throws Exception {
+        Session session = newSession(new Properties());
+        assertNull(session.getTransportPool());
+        int before = CountingTransport.connects.get();
+        for (int i = 0; i < 3; i++)
+            Transport.send(newMessage(session));
+        assertEquals(before + 3, CountingTransport.connects.get());
+    }
+
+    @Test
+    public void sendWithPoolReusesConnection() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("mail.transport.pool", "true");
+        Session session = newSession(props);
+        int before = CountingTransport.connects.get();
+        for (int i = 0; i < 3; i++)
+            Transport.send(newMessage(session));
+        assertEquals(before + 1, CountingTransport.connects.get());
+
+        TransportPool pool = session.getTransportPool();
+        assertEquals(2, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.getEvictions());
+
+        // a different user gets its own connection
+        Transport.send(newMessage(session), "user", "secret");
+        assertEquals(before + 2, CountingTransport.connects.get());
+    }
+
+    @Test
+    public void poolEvictsIdleAndDisconnectedTransports() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("mail.transport.pool", "true");
+        props.setProperty("mail.transport.pool.timeout", "0");
+        Session session = newSession(props);
+        int before = CountingTransport.connects.get();
+        Transport.send(newMessage(session));
+        Transport.send(newMessage(session));
+        TransportPool pool = session.getTransportPool();
+        // nothing is kept, so nothing is evicted
+        assertEquals(before + 2, CountingTransport.connects.get());
+        assertEquals(0, pool.getHits());
+        assertEquals(0, pool.getEvictions());
+
+        URLName key = TransportPool.key("counting", null, null);
+        Transport t = session.getTransport("counting");
+        t.connect();
+        pool.release(key, t);
+        t.close();
+        assertNull(pool.take(key));
+    }
+
+    @Test
+    public void poolClosesTimedOutTransports() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("mail.transport.pool", "true");
+        props.setProperty("mail.transport.pool.timeout", "50");
+        Session session = newSession(props);
+        Transport.send(newMessage(session));
+        TransportPool pool = session.getTransportPool();
+        for (int i = 0; i < 100 && pool.getEvictions() == 0; i++)
+            Thread.sleep(50);
+        assertEquals(1, pool.getEvictions());
+        assertEquals(0, pool.getHits());
+    }
+
+    @Test
+    public void closedPoolKeepsNothing() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("mail.transport.pool", "true");
+        Session session = newSession(props);
+        int before = CountingTransport.connects.get();
+        Transport.send(newMessage(session));
+        TransportPool pool = session.getTransportPool();
+        pool.close();
+        assertEquals(1, pool.getEvictions());
+
+        Transport.send(newMessage(session));
+        Transport.send(newMessage(session));
+        assertEquals(before + 3, CountingTransport.connects.get());
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getEvictions());
+    }
+
+    @Test
+    public void sendAllUsesOneConnectionPerGroup() throws Exception {
+        Session session = newSession(new Properties());
+        Message bad = new MimeMessage(session);
+        bad.setRecipient(Message.RecipientType.TO,
+                new InternetAddress("invalid@example.com"));
+        bad.setText("test");
+        Message none = new MimeMessage(session);
+        none.setText("test");
+        List<Message> msgs = Arrays.asList(newMessage(session), bad, none,
+                newMessage(session));
+
+        int before = CountingTransport.connects.get();
+        List<SendResult> results = Transport.sendAll(msgs);
+        assertEquals(before + 1, CountingTransport.connects.get());
+        checkResults(msgs, results);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            results = Transport.sendAll(msgs, executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(before + 2, CountingTransport.connects.get());
+        checkResults(msgs, results);
+    }
+
+    @Test
+    public void sendAllMergesAddressTypesOfOneProtocol() throws Exception {
+        Session session = newSession(new Properties());
+        session.setProtocolForAddress("news", "counting");
+        Message msg = newMessage(session);
+        msg.addRecipient(MimeMessage.RecipientType.NEWSGROUPS,
+                new NewsAddress("comp.mail.misc"));
+
+        int before = CountingTransport.connects.get();
+        List<SendResult> results = Transport.sendAll(Arrays.asList(msg));
+        assertEquals(before + 1, CountingTransport.connects.get());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(2, results.get(0).getValidSentAddresses().length);
+    }
+
+    private static void checkResults(List<Message> msgs,
+                                     List<SendResult> results) {
+        assertEquals(msgs.size(), results.size());
+        for (int i = 0; i < msgs.size(); i++)
+            assertSame(msgs.get(i), results.get(i).getMessage());
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(1, results.get(0).getValidSentAddresses().length);
+        assertTrue(results.get(3).isSuccess());
+
+        SendResult bad = results.get(1);
+        assertFalse(bad.isSuccess());
+        assertTrue(bad.getException() instanceof SendFailedException);
+        assertEquals(1, bad.getInvalidAddresses().length);
+        assertNull(bad.getValidSentAddresses());
+
+        SendResult none = results.get(2);
+        assertFalse(none.isSuccess());
+        assertEquals("No recipient addresses",
+                none.getException().getMessage());
+    }
+
+    @Test
+    public void sendAsyncKeepsOrderAndDeliversEvents() throws Exception {
+        Properties props = new Properties();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        props.put("mail.transport.async.executor", executor);
+        Session session = newSession(props);
+        CountingTransport t = (CountingTransport) session.getTransport("counting");
+        CountDownLatch delivered = new CountDownLatch(4);
+        CountDownLatch notDelivered = new CountDownLatch(1);
+        t.addTransportListener(new TransportAdapter() {
+            @Override
+            public void messageDelivered(TransportEvent e) {
+                delivered.countDown();
+            }
+
+            @Override
+            public void messageNotDelivered(TransportEvent e) {
+                notDelivered.countDown();
+            }
+        });
+        try {
+            t.connect();
+            List<Message> msgs = new ArrayList<>();
+            List<CompletableFuture<SendResult>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Message msg = newMessage(session);
+                Address[] to = { new InternetAddress(i == 2 ?
+                        "invalid@example.com" : "nobody@example.com") };
+                msgs.add(msg);
+                results.add(t.sendAsync(msg, to).toCompletableFuture());
+            }
+            for (int i = 0; i < 5; i++) {
+                SendResult r = results.get(i).get(10, TimeUnit.SECONDS);
+                assertSame(msgs.get(i), r.getMessage());
+                assertEquals(i != 2, r.isSuccess());
+            }
+            msgs.remove(2);
+            assertEquals(msgs, t.sent);
+            assertTrue(delivered.await(10, TimeUnit.SECONDS));
+            assertTrue(notDelivered.await(10, TimeUnit.SECONDS));
+        } finally {
+            t.close();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sendAsyncBlocksAtLimit() throws Exception {
+        Properties props = new Properties();
+        List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+        props.put("mail.transport.async.executor", (Executor) tasks::add);
+        props.setProperty("mail.transport.async.limit", "1");
+        Session session = newSession(props);
+        Transport t = session.getTransport("counting");
+        t.connect();
+        Message msg = newMessage(session);
+        Address[] to = msg.getAllRecipients();
+        CompletionStage<SendResult> first = t.sendAsync(msg, to);
+
+        CompletableFuture<CompletionStage<SendResult>> second =
+                CompletableFuture.supplyAsync(() -> t.sendAsync(msg, to));
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        tasks.remove(0).run();
+        assertTrue(first.toCompletableFuture().isDone());
+        CompletionStage<SendResult> stage = second.get(10, TimeUnit.SECONDS);
+        // the task that sent the first message may have sent the second too
+        if (!stage.toCompletableFuture().isDone())
+            tasks.remove(0).run();
+        assertTrue(tasks.isEmpty());
+        assertTrue(stage.toCompletableFuture().get().isSuccess());
+        t.close();
+    }
+
+    private static Session newSession(Properties props) {
+        Session session = Session.getInstance(props);
+        session.addProvider(new Provider(Provider.Type.TRANSPORT, "counting",
+                CountingTransport.class.getName(), "Oracle", null));
+        session.setProtocolForAddress("rfc822", "counting");
+        return session;
+    }
+
+    private static Message newMessage(Session session) throws MessagingException {
+        MimeMessage msg = new MimeMessage(session);
+        msg.setRecipient(Message.RecipientType.TO,
+                new InternetAddress("nobody@example.com"));
+        msg.setText("test");
+        return msg;
+    }
+
+    public static class CountingTransport extends Transport {
+
+        static final AtomicInteger connects = new AtomicInteger();
+
+        final List<Message> sent = new ArrayList<>();
+
+        public CountingTransport(Session session, URLName urlname) {
+            super(session, urlname);
+        }
+
+        @Override
+        protected boolean protocolConnect(String host, int port, String user,
+                                          String password) {
+            connects.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public void sendMessage(Message msg, Address[] addresses)
+                throws MessagingException {
+            for (Address a : addresses) {
+                if (a.toString().startsWith("invalid@")) {
+                    notifyTransportListeners(
+                            TransportEvent.MESSAGE_NOT_DELIVERED,
+                            null, null, addresses, msg);
+                    throw new SendFailedException("Invalid address", null,
+                            null, null, new Address[] { a });
+                }
+            }
+            sent.add(msg);
+            notifyTransportListeners(TransportEvent.MESSAGE_DELIVERED,
+                    addresses, null, null, msg);
+        }
+    }
+}
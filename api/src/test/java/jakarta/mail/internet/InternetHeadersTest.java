@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.internet;
+
+import java.io.ByteArrayInputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test that the index of headers by name gives the same results
+ * as scanning the list of headers.
+ */
+public class InternetHeadersTest {
+
+    private static final String[] NAMES = {
+        "Received", "received", "Subject", "SUBJECT", "X-Test", "x-test",
+        "Return-Path", "To", "Content-Type", "X-Other"
+    };
+
+    @Test
+    public void indexMatchesScan() {
+        Random r = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            InternetHeaders indexed = new InternetHeaders();
+            InternetHeaders scanned = new Unindexed();
+            for (int n = 0; n < 30; n++) {
+                String name = NAMES[r.nextInt(NAMES.length)];
+                String value = "v" + n;
+                switch (r.nextInt(5)) {
+                case 0:
+                    indexed.addHeader(name, value);
+                    scanned.addHeader(name, value);
+                    break;
+                case 1:
+                    indexed.setHeader(name, value);
+                    scanned.setHeader(name, value);
+                    break;
+                case 2:
+                    indexed.removeHeader(name);
+                    scanned.removeHeader(name);
+                    break;
+                case 3:
+                    indexed.addHeaderLine(name + ": " + value);
+                    scanned.addHeaderLine(name + ": " + value);
+                    break;
+                default:
+                    indexed.addHeaderLine("\tcontinued");
+                    scanned.addHeaderLine("\tcontinued");
+                    break;
+                }
+                for (String nm : NAMES)
+                    assertArrayEquals(nm, scanned.getHeader(nm),
+                            indexed.getHeader(nm));
+            }
+            assertEquals(Collections.list(scanned.getAllHeaderLines()),
+                    Collections.list(indexed.getAllHeaderLines()));
+        }
+    }
+
+    @Test
+    public void directChangesToListAreSeen() {
+        Direct h = new Direct();
+        h.addHeader("Subject", "one");
+        assertArrayEquals(new String[]{"one"}, h.getHeader("subject"));
+        h.removeDirectly("Subject");
+        assertNull(h.getHeader("subject"));
+        h.replaceDirectly(new InternetHeaders.InternetHeader("Subject: two"));
+        assertArrayEquals(new String[]{"two"}, h.getHeader("SUBJECT"));
+        h.headers.subList(0, 1).set(0,
+                new InternetHeaders.InternetHeader("Subject: three"));
+        assertArrayEquals(new String[]{"three"}, h.getHeader("subject"));
+    }
+
+    @Test
+    public void loadFromBytes() throws Exception {
+        String block = "Subject: one\r\n"
+                + "To: a@example.com,\n"
+                + "\tb@example.com\r"
+                + " c@example.com\r\n"
+                + "NoColon\n"
+                + "X-UTF8: caf\u00e9\r\n"
+                + "\r\n";
+        byte[] b = (block + "body").getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream in = new ByteArrayInputStream(b);
+        InternetHeaders h = new InternetHeaders(in, true);
+        assertEquals("body", new String(in.readAllBytes(),
+                StandardCharsets.US_ASCII));
+        assertEquals(Arrays.asList("Subject: one",
+                "To: a@example.com,\r\n\tb@example.com\r\n c@example.com",
+                "NoColon", "X-UTF8: caf\u00e9"),
+                Collections.list(h.getAllHeaderLines()));
+        assertArrayEquals(new String[]{"a@example.com,\r\n\tb@example.com"
+                + "\r\n c@example.com"}, h.getHeader("to"));
+        assertArrayEquals(new String[]{"NoColon"}, h.getHeader("NoColon"));
+
+        // subclasses get each header line through addHeaderLine
+        InternetHeaders u = new Unindexed();
+        u.load(new ByteArrayInputStream(b), true);
+        assertEquals(Collections.list(h.getAllHeaderLines()),
+                Collections.list(u.getAllHeaderLines()));
+    }
+
+    @Test
+    public void loadBareCR() throws Exception {
+        byte[] b = "Subject: one\rTo: x\r\rbody".getBytes(
+                StandardCharsets.US_ASCII);
+        ByteArrayInputStream in = new ByteArrayInputStream(b);
+        InternetHeaders h = new InternetHeaders(in);
+        assertEquals(Arrays.asList("Subject: one", "To: x"),
+                Collections.list(h.getAllHeaderLines()));
+        assertEquals("body", new String(in.readAllBytes(),
+                StandardCharsets.US_ASCII));
+
+        // a PushbackInputStream gets back the bytes read after a lone CR
+        PushbackInputStream pin =
+                new PushbackInputStream(new ByteArrayInputStream(b), 2);
+        h = new InternetHeaders(pin);
+        assertEquals(Arrays.asList("Subject: one", "To: x"),
+                Collections.list(h.getAllHeaderLines()));
+        assertEquals("body", new String(pin.readAllBytes(),
+                StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void loadCRCRLF() throws Exception {
+        byte[] b = "Subject: one\r\r\n\ttwo\r\r\nFrom: a@b\r\n\r\nbody"
+                .getBytes(StandardCharsets.US_ASCII);
+        ByteArrayInputStream in = new ByteArrayInputStream(b);
+        InternetHeaders h = new InternetHeaders(in);
+        assertEquals(Arrays.asList("Subject: one\r\n\ttwo", "From: a@b"),
+                Collections.list(h.getAllHeaderLines()));
+        assertEquals("body", new String(in.readAllBytes(),
+                StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void loadLeadingContinuation() throws Exception {
+        InternetHeaders h = new InternetHeaders(new ByteArrayInputStream(
+                " Subject: one\r\n\ttwo\r\nTo: x\r\n".getBytes(
+                        StandardCharsets.US_ASCII)));
+        assertEquals(Arrays.asList("Subject: one\r\n\ttwo", "To: x"),
+                Collections.list(h.getAllHeaderLines()));
+    }
+
+    @Test
+    public void loadedHeadersCanChange() throws Exception {
+        InternetHeaders h = new InternetHeaders(new ByteArrayInputStream(
+                "Subject: one\r\nTo: x\r\n\r\n".getBytes(
+                        StandardCharsets.US_ASCII)));
+        h.setHeader("subject", "two");
+        h.removeHeader("To");
+        assertArrayEquals(new String[]{"two"}, h.getHeader("Subject"));
+        assertNull(h.getHeader("To"));
+        assertEquals(Arrays.asList("Subject: two"),
+                Collections.list(h.getAllHeaderLines()));
+    }
+
+    /**
+     * InternetHeaders that uses a plain List, which isn't indexed.
+     */
+    private static final class Unindexed extends InternetHeaders {
+        Unindexed() {
+            headers = new ArrayList<>(headers);
+        }
+    }
+
+    /**
+     * InternetHeaders whose list is changed directly.
+     */
+    private static final class Direct extends InternetHeaders {
+        void removeDirectly(String name) {
+            headers.removeIf(h -> h.getName().equalsIgnoreCase(name));
+        }
+
+        void replaceDirectly(InternetHeader h) {
+            List<InternetHeader> l = headers;
+            l.set(0, h);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1997, 2023 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -56,6 +56,45 @@ public class MailDateFormatTest {
         assertThat(fmt.parse(fmt.format(date)), is(date));
     }
 
+    @Test
+    public void sharedFormatMustMatchInstanceFormat() {
+        TimeZone tz = TimeZone.getDefault();
+        String[] zones = {"UTC", "Europe/Brussels", "America/Los_Angeles",
+            "Asia/Kolkata", "Australia/Lord_Howe", "Etc/GMT+8"};
+        long[] times = {0L, 1341100798000L, 1341100799999L, -1000L,
+            -2208988800000L, 253402300799000L};
+        try {
+            for (String zone : zones) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zone));
+                for (long time : times) {
+                    Date date = new Date(time);
+                    assertThat(MailDateFormat.formatDate(date),
+                            is(getDefault().format(date)));
+                }
+            }
+        } finally {
+            TimeZone.setDefault(tz);
+        }
+    }
+
+    @Test
+    public void sharedParseMustMatchLenientParse() throws ParseException {
+        String[] inputs = {"Thu, 1 Jan 2015 00:00:00 +0000 (UTC)",
+            "1 Jan 2015 00:00 -0000", "31-feb-15 25:61:60 EST",
+            "30 Jun 2012 23:59:60 +0000", "1 Jan 1200 00:00 +0100",
+            "Fri, 0 Mar 99999999 00:00 +9959"};
+        for (String input : inputs) {
+            assertThat(MailDateFormat.parseDate(input),
+                    is(getLenient().parse(input)));
+        }
+        try {
+            MailDateFormat.parseDate("not a date");
+            fail("'not a date' is not a valid date");
+        } catch (ParseException expected) {
+            assertThat(expected.getErrorOffset(), is(10));
+        }
+    }
+
     /*
      * Formatting
      */
@@ -17,12 +17,23 @@
 package jakarta.mail.internet;
 
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Properties;
+import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
+import jakarta.mail.util.SharedFileInputStream;
 import org.junit.Test;
 
 /**
@@ -38,6 +49,25 @@ public class MimeMessageTest {
         assertEquals(false, message.isAllowutf8());
     }
 
+    @Test
+    public void testBareCRHeaders() throws Exception {
+        Session session = Session.getInstance(new Properties());
+        String[] msgs = {
+            "Subject: one\rFrom: a@b\r\rbody text",
+            "Subject: one\r\r\nFrom: a@b\r\n\r\nbody text"
+        };
+        for (String m : msgs) {
+            // not a ByteArrayInputStream, so MimeMessage buffers it
+            InputStream in = new FilterInputStream(new ByteArrayInputStream(
+                    m.getBytes(StandardCharsets.US_ASCII))) { };
+            MimeMessage message = new MimeMessage(session, in);
+            assertEquals("one", message.getSubject());
+            assertArrayEquals(new String[]{"a@b"}, message.getHeader("From"));
+            assertEquals("body text",
+                    new String(message.content, StandardCharsets.US_ASCII));
+        }
+    }
+
     @Test
     public void testSystemAndSession() throws Exception {
         try {
@@ -94,4 +124,101 @@ public class MimeMessageTest {
         ByteArrayInputStream is = new ByteArrayInputStream(input);
         new MimeMessage(session, is);
     }
+
+    @Test
+    public void testLazyBody() throws Exception {
+        byte[] input = "Subject: lazy\r\n\r\nthe body".getBytes(
+                StandardCharsets.US_ASCII);
+        Properties properties = new Properties();
+        properties.setProperty("mail.mime.lazybody", "true");
+        Session session = Session.getInstance(properties);
+        ByteArrayInputStream is = new ByteArrayInputStream(input);
+        MimeMessage message = new MimeMessage(session, is);
+        assertEquals("lazy", message.getSubject());
+        assertEquals(8, is.available());
+        assertNull(message.content);
+        assertEquals(-1, message.getSize());
+
+        message.getContentStream();
+        assertEquals(0, is.available());
+        assertArrayEquals("the body".getBytes(StandardCharsets.US_ASCII),
+                message.content);
+        assertEquals(8, message.getSize());
+    }
+
+    @Test
+    public void testBodyReadByDefault() throws Exception {
+        byte[] input = "Subject: eager\r\n\r\nthe body".getBytes(
+                StandardCharsets.US_ASCII);
+        Session session = Session.getInstance(new Properties());
+        ByteArrayInputStream is = new ByteArrayInputStream(input);
+        MimeMessage message = new MimeMessage(session, is);
+        assertEquals(0, is.available());
+        assertEquals(8, message.getSize());
+    }
+
+    @Test
+    public void testBufferThreshold() throws Exception {
+        byte[] input = "Subject: big\r\n\r\nthe body".getBytes(
+                StandardCharsets.US_ASCII);
+        Properties properties = new Properties();
+        properties.setProperty("mail.mime.buffer.threshold", "4");
+        Session session = Session.getInstance(properties);
+        MimeMessage message = new MimeMessage(session,
+                new ByteArrayInputStream(input));
+        assertNull(message.content);
+        assertTrue(message.contentStream instanceof SharedFileInputStream);
+        assertEquals(8, message.getSize());
+        try (InputStream is = message.getContentStream()) {
+            assertArrayEquals("the body".getBytes(StandardCharsets.US_ASCII),
+                    is.readAllBytes());
+        }
+        message.contentStream.close();
+
+        properties.setProperty("mail.mime.buffer.threshold", "8");
+        message = new MimeMessage(Session.getInstance(properties),
+                new ByteArrayInputStream(input));
+        assertNull(message.contentStream);
+        assertArrayEquals("the body".getBytes(StandardCharsets.US_ASCII),
+                message.content);
+    }
+
+    @Test
+    public void testBufferThresholdCleanup() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("mail.mime.buffer.threshold", "4");
+        Session session = Session.getInstance(properties);
+        int before = tempFiles();
+        MimeMessage message = new MimeMessage(session,
+                new ByteArrayInputStream(
+                    "Subject: big\r\n\r\nthe body".getBytes(
+                        StandardCharsets.US_ASCII)));
+        // the file is removed while it's still open
+        assertEquals(before, tempFiles());
+        message.contentStream.close();
+
+        InputStream failing = new InputStream() {
+            private int n;
+
+            @Override
+            public int read() throws IOException {
+                if (n == 100)
+                    throw new IOException("failed");
+                return n++ < 20 ? '\n' : 'x';
+            }
+        };
+        try {
+            new MimeMessage(session, failing);
+            fail("exception not thrown");
+        } catch (MessagingException ex) {
+            // expected
+        }
+        assertEquals(before, tempFiles());
+    }
+
+    private static int tempFiles() {
+        String[] names = new File(System.getProperty("java.io.tmpdir"))
+                .list((dir, name) -> name.startsWith("jakartamail"));
+        return names == null ? 0 : names.length;
+    }
 }
@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.internet;
+
+import jakarta.activation.DataSource;
+import jakarta.mail.BodyPart;
+import jakarta.mail.MessagingException;
+import jakarta.mail.util.ByteArrayDataSource;
+import jakarta.mail.util.DummyStreamProvider;
+import jakarta.mail.util.LineOutputStream;
+import jakarta.mail.util.StreamProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test parsing multiparts, and finding body parts by Content-ID.
+ */
+public class MimeMultipartTest {
+
+    private static final String TYPE = "multipart/mixed; boundary=\"b\"";
+
+    private static final String MULTIPART =
+        "preamble\r\n" +
+        "--b\r\n" +
+        "Content-ID: <one@example.com>\r\n" +
+        "\r\n" +
+        "one\r\n" +
+        "--b \r\n" +
+        "Content-ID: <two@example.com>\r\n" +
+        "\r\n" +
+        "two\n--bx\n-b--\r\n" +
+        "--b\n" +
+        "Content-ID: <three@example.com>\n" +
+        "\n" +
+        "\r\n" +
+        "--b--\r\n" +
+        "epilogue\r\n";
+
+    @Test
+    public void parseShared() throws Exception {
+        MimeMultipart mp = new MimeMultipart(new ByteArrayDataSource(
+                MULTIPART.getBytes(StandardCharsets.US_ASCII), TYPE));
+        checkParts(mp);
+        for (int i = 0; i < 3; i++)
+            assertTrue(((MimeBodyPart) mp.getBodyPart(i)).contentStream
+                    instanceof SharedInputStream);
+    }
+
+    @Test
+    public void parseCopied() throws Exception {
+        checkParts(new MimeMultipart(new StreamSource(MULTIPART, TYPE)));
+    }
+
+    @Test
+    public void delimiterAtBufferEdge() throws Exception {
+        // first bodies that put the delimiter line at, and across,
+        // the end of the largest buffer
+        for (int k = 1; k <= 2; k++) {
+            for (int len = 65536 * k - 40; len <= 65536 * k + 10; len++) {
+                byte[] data = new byte[len];
+                Arrays.fill(data, (byte) 'x');
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                bos.write("--XYZ\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                bos.write(data);
+                bos.write("\r\n--XYZ\r\n\r\nsecond\r\n--XYZ--\r\n"
+                        .getBytes(StandardCharsets.US_ASCII));
+                String type = "multipart/mixed; boundary=XYZ";
+                for (MimeMultipart mp : new MimeMultipart[] {
+                        new MimeMultipart(new ByteArrayDataSource(
+                                bos.toByteArray(), type)),
+                        new MimeMultipart(new StreamSource(
+                                bos.toByteArray(), type)) }) {
+                    assertEquals("length " + len, 2, mp.getCount());
+                    assertEquals("length " + len, len,
+                            body(mp.getBodyPart(0)).length());
+                    assertEquals("second", body(mp.getBodyPart(1)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void missingEndBoundary() throws Exception {
+        MimeMultipart mp = new MimeMultipart(new StreamSource(
+                "--b\r\n\r\nlast\r\n--b-", TYPE));
+        assertEquals(1, mp.getCount());
+        assertFalse(mp.isComplete());
+        assertEquals("last\r\n--b-", body(mp.getBodyPart(0)));
+    }
+
+    @Test
+    public void incremental() throws Exception {
+        CountingMultipart mp;
+        System.setProperty("mail.mime.multipart.incremental", "true");
+        try {
+            mp = new CountingMultipart(new ByteArrayDataSource(
+                    MULTIPART.getBytes(StandardCharsets.US_ASCII), TYPE));
+        } finally {
+            System.clearProperty("mail.mime.multipart.incremental");
+        }
+        assertEquals("one", body(mp.getBodyPart(0)));
+        assertEquals(1, mp.parsed());
+        assertSame(mp.getBodyPart(1),
+                mp.getBodyPart("<two@example.com>"));
+        assertEquals(2, mp.parsed());
+        checkParts(mp);
+    }
+
+    @Test
+    public void parallelWrite() throws Exception {
+        WritingMultipart mp = new WritingMultipart();
+        // the first part finishes last, but is still written first
+        mp.addBodyPart(new FixedPart("zero", 200));
+        mp.addBodyPart(new FixedPart("one", 0));
+        mp.addBodyPart(new FixedPart("two", 0));
+        assertEquals(expected(mp, "zero", "one", "two"), write(mp, true));
+        for (int i = 0; i < 3; i++)
+            assertNotSame(Thread.currentThread(),
+                    ((FixedPart) mp.getBodyPart(i)).writer);
+
+        assertEquals(expected(mp, "zero", "one", "two"), write(mp, false));
+        for (int i = 0; i < 3; i++)
+            assertSame(Thread.currentThread(),
+                    ((FixedPart) mp.getBodyPart(i)).writer);
+    }
+
+    @Test
+    public void parallelWriteFails() throws Exception {
+        WritingMultipart mp = new WritingMultipart();
+        mp.addBodyPart(new FixedPart("zero", 0));
+        mp.addBodyPart(new FixedPart(null, 0));
+        try {
+            write(mp, true);
+            fail("exception not thrown");
+        } catch (MessagingException ex) {
+            assertEquals("can't write", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void parallelWriteLimitsWorkAhead() throws Exception {
+        WritingMultipart mp = new WritingMultipart();
+        int n = MimeMultipart.WRITE_AHEAD + 3;
+        String[] bodies = new String[n];
+        for (int i = 0; i < n; i++) {
+            bodies[i] = "part" + i;
+            mp.addBodyPart(new FixedPart(bodies[i], 0));
+        }
+        BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+        mp.setWriteExecutor(tasks::add);
+        CompletableFuture<String> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return write(mp, true);
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        });
+        for (int i = 0; i < n; i++) {
+            Runnable task = tasks.poll(10, TimeUnit.SECONDS);
+            assertNotNull(task);
+            if (i == 0) {
+                // only the first few parts are queued
+                Thread.sleep(100);
+                assertEquals(MimeMultipart.WRITE_AHEAD - 1, tasks.size());
+            }
+            task.run();
+        }
+        assertEquals(expected(mp, bodies), result.get(10, TimeUnit.SECONDS));
+        assertTrue(tasks.isEmpty());
+        for (int i = 0; i < n; i++)
+            assertSame(Thread.currentThread(),
+                    ((FixedPart) mp.getBodyPart(i)).writer);
+    }
+
+    @Test
+    public void contentIDs() throws Exception {
+        MimeMultipart mp = new MimeMultipart();
+        MimeBodyPart[] bp = new MimeBodyPart[5];
+        for (int i = 0; i < bp.length; i++) {
+            bp[i] = new MimeBodyPart();
+            bp[i].setContentID("<" + (i % 4) + "@example.com>");
+            mp.addBodyPart(bp[i]);
+        }
+        assertSame(bp[2], mp.getBodyPart("<2@example.com>"));
+        // the first part with a Content-ID is returned
+        assertSame(bp[0], mp.getBodyPart("<0@example.com>"));
+        assertNull(mp.getBodyPart("<9@example.com>"));
+
+        // changes after the parts were indexed are seen
+        bp[2].setContentID("<9@example.com>");
+        assertSame(bp[2], mp.getBodyPart("<9@example.com>"));
+        assertNull(mp.getBodyPart("<2@example.com>"));
+        mp.removeBodyPart(0);
+        assertSame(bp[4], mp.getBodyPart("<0@example.com>"));
+        MimeBodyPart first = new MimeBodyPart();
+        first.setContentID("<1@example.com>");
+        mp.addBodyPart(first, 0);
+        assertSame(first, mp.getBodyPart("<1@example.com>"));
+        MimeBodyPart last = new MimeBodyPart();
+        last.setHeader("Content-ID", "<last@example.com>");
+        mp.addBodyPart(last);
+        assertSame(last, mp.getBodyPart("<last@example.com>"));
+        last.removeHeader("Content-ID");
+        assertNull(mp.getBodyPart("<last@example.com>"));
+        last.addHeaderLine("Content-ID: <line@example.com>");
+        assertSame(last, mp.getBodyPart("<line@example.com>"));
+    }
+
+    @Test
+    public void missingContentIDIsNotSearched() throws Exception {
+        int[] calls = new int[1];
+        MimeMultipart mp = new MimeMultipart();
+        for (int i = 0; i < 3; i++) {
+            MimeBodyPart bp = new MimeBodyPart() {
+                @Override
+                public String getContentID() throws MessagingException {
+                    calls[0]++;
+                    return super.getContentID();
+                }
+            };
+            bp.setContentID("<" + i + "@example.com>");
+            mp.addBodyPart(bp);
+        }
+        assertNull(mp.getBodyPart("<9@example.com>"));
+        int n = calls[0];
+        assertNull(mp.getBodyPart("<9@example.com>"));
+        assertNotNull(mp.getBodyPart("<1@example.com>"));
+        assertEquals(n, calls[0]);
+    }
+
+    private static String write(MimeMultipart mp, boolean parallel)
+            throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        if (parallel)
+            System.setProperty("mail.mime.multipart.parallelwrite", "true");
+        try {
+            mp.writeTo(bos);
+        } finally {
+            System.clearProperty("mail.mime.multipart.parallelwrite");
+        }
+        return new String(bos.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    private static String expected(MimeMultipart mp, String... bodies)
+            throws Exception {
+        String boundary = "--" +
+                new ContentType(mp.getContentType()).getParameter("boundary");
+        StringBuilder sb = new StringBuilder();
+        for (String body : bodies)
+            sb.append(boundary).append("\r\n").append(body).append("\r\n");
+        return sb.append(boundary).append("--\r\n").toString();
+    }
+
+    private static void checkParts(MimeMultipart mp) throws Exception {
+        assertEquals(3, mp.getCount());
+        assertTrue(mp.isComplete());
+        assertEquals("preamble" + System.lineSeparator(), mp.getPreamble());
+        assertEquals("one", body(mp.getBodyPart(0)));
+        assertEquals("two\n--bx\n-b--", body(mp.getBodyPart(1)));
+        assertEquals("", body(mp.getBodyPart(2)));
+        assertSame(mp.getBodyPart(2),
+                mp.getBodyPart("<three@example.com>"));
+    }
+
+    private static String body(BodyPart bp) throws Exception {
+        MimeBodyPart part = (MimeBodyPart) bp;
+        byte[] b;
+        if (part.contentStream != null) {
+            try (InputStream is = ((SharedInputStream) part.contentStream)
+                    .newStream(0, -1)) {
+                b = is.readAllBytes();
+            }
+        } else {
+            b = part.content;
+        }
+        return new String(b, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Exposes how many parts have been parsed so far.
+     */
+    private static final class CountingMultipart extends MimeMultipart {
+        CountingMultipart(DataSource ds) throws Exception {
+            super(ds);
+        }
+
+        int parsed() {
+            return parts.size();
+        }
+    }
+
+    /**
+     * Writes lines directly, since the test StreamProvider can't.
+     */
+    private static final class WritingMultipart extends MimeMultipart {
+        @Override
+        protected StreamProvider getStreamProvider() {
+            return new DummyStreamProvider() {
+                @Override
+                public LineOutputStream outputLineStream(OutputStream out,
+                                                         boolean allowutf8) {
+                    return new LineOutputStream() {
+                        @Override
+                        public void writeln(String s) throws IOException {
+                            write(s.getBytes(StandardCharsets.US_ASCII));
+                            writeln();
+                        }
+
+                        @Override
+                        public void writeln() throws IOException {
+                            out.write('\r');
+                            out.write('\n');
+                        }
+
+                        @Override
+                        public void write(byte[] content) throws IOException {
+                            out.write(content);
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * A body part that writes out fixed text, after a delay, and
+     * remembers the thread that wrote it.  A null text fails.
+     */
+    private static final class FixedPart extends MimeBodyPart {
+        private final String text;
+        private final long delay;
+        volatile Thread writer;
+
+        FixedPart(String text, long delay) {
+            this.text = text;
+            this.delay = delay;
+        }
+
+        @Override
+        public void writeTo(OutputStream os)
+                throws IOException, MessagingException {
+            writer = Thread.currentThread();
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+            if (text == null)
+                throw new MessagingException("can't write");
+            os.write(text.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * A DataSource whose stream isn't a SharedInputStream.
+     */
+    private static final class StreamSource implements DataSource {
+        private final byte[] data;
+        private final String type;
+
+        StreamSource(String data, String type) {
+            this(data.getBytes(StandardCharsets.US_ASCII), type);
+        }
+
+        StreamSource(byte[] data, String type) {
+            this.data = data;
+            this.type = type;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("read only");
+        }
+
+        @Override
+        public String getContentType() {
+            return type;
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.internet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test the events returned by the MimePullParser.
+ */
+public class MimePullParserTest {
+
+    private static final String MESSAGE =
+        "Subject: outer\r\n" +
+        "Content-Type: multipart/mixed; boundary=\"outer\"\r\n" +
+        "\r\n" +
+        "preamble\r\n" +
+        "--outer\r\n" +
+        "Content-Type: text/plain\r\n" +
+        "\r\n" +
+        "hello --outer\r\n" +
+        "--outerx\r\n" +
+        "--outer  \r\n" +
+        "Content-Type: message/rfc822\r\n" +
+        "\r\n" +
+        "Subject: inner\r\n" +
+        "Content-Type: multipart/alternative; boundary=inner\r\n" +
+        "\r\n" +
+        "--inner\n" +
+        "Content-Type: text/plain\n" +
+        "\n" +
+        "inner text\n" +
+        "--inner--\n" +
+        "inner epilogue\r\n" +
+        "--outer\r\n" +
+        "\r\n" +
+        "--outer\r\n" +
+        "Content-Type: message/rfc822\r\n" +
+        "Content-Transfer-Encoding: base64\r\n" +
+        "\r\n" +
+        "U3ViamVjdDogeA0KDQp4\r\n" +
+        "--outer--\r\n" +
+        "epilogue\r\n";
+
+    private static final List<String> EVENTS = Arrays.asList(
+        "start 0", "headers 0 outer",
+        "start 1", "headers 1 null", "body 1 hello --outer\r\n--outerx",
+        "end 1",
+        "start 1", "headers 1 null",
+        "start 2", "headers 2 inner",
+        "start 3", "headers 3 null", "body 3 inner text", "end 3",
+        "end 2", "end 1",
+        "start 1", "headers 1 null", "end 1",
+        "start 1", "headers 1 null", "body 1 U3ViamVjdDogeA0KDQp4", "end 1",
+        "end 0",
+        "end");
+
+    @Test
+    public void events() throws Exception {
+        byte[] msg = MESSAGE.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(EVENTS, events(msg, 8192));
+        // small buffers split bodies and boundaries into many chunks
+        for (int size = 1; size < 80; size++)
+            assertEquals(EVENTS, events(msg, size));
+    }
+
+    @Test
+    public void largeBody() throws Exception {
+        byte[] data = new byte[100000];
+        Random r = new Random(7);
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte) (r.nextInt(4) == 0 ? '\n' : '-');
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(("Content-Type: multipart/mixed; boundary=b\r\n\r\n" +
+                "--b\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        bos.write(data);
+        bos.write("\r\n--b--\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        MimePullParser parser = new MimePullParser(
+                new ByteArrayInputStream(bos.toByteArray()), 64);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        while (parser.hasNext()) {
+            if (parser.next() == MimePullParser.BODY) {
+                assertEquals(1, parser.getDepth());
+                ByteBuffer b = parser.getBody();
+                byte[] chunk = new byte[b.remaining()];
+                b.get(chunk);
+                body.write(chunk);
+            }
+        }
+        assertArrayEquals(data, body.toByteArray());
+    }
+
+    @Test
+    public void delimiterAtBufferEdge() throws Exception {
+        // first bodies that put the delimiter line at, and across,
+        // the end of the buffer
+        for (int k = 1; k <= 4; k++) {
+            for (int len = 8192 * k - 120; len <= 8192 * k + 20; len++) {
+                byte[] data = new byte[len];
+                Arrays.fill(data, (byte) 'x');
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                bos.write(("Content-Type: multipart/mixed; boundary=XYZ\r\n" +
+                        "\r\n--XYZ\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                bos.write(data);
+                bos.write(("\r\n--XYZ\r\n\r\nsecond\r\n--XYZ\r\n\r\nthird" +
+                        "\r\n--XYZ--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+                List<Integer> bodies = new ArrayList<>();
+                try (MimePullParser parser = new MimePullParser(
+                        new ByteArrayInputStream(bos.toByteArray()))) {
+                    int n = 0;
+                    while (parser.hasNext()) {
+                        int event = parser.next();
+                        if (event == MimePullParser.BODY)
+                            n += parser.getBody().remaining();
+                        else if (event == MimePullParser.END_PART &&
+                                parser.getDepth() == 1) {
+                            bodies.add(n);
+                            n = 0;
+                        }
+                    }
+                }
+                assertEquals("length " + len,
+                        Arrays.asList(len, 6, 5), bodies);
+            }
+        }
+    }
+
+    @Test
+    public void missingEndBoundary() throws Exception {
+        byte[] msg = ("Content-Type: multipart/mixed; boundary=b\r\n\r\n" +
+                "--b\r\n\r\nlast").getBytes(StandardCharsets.US_ASCII);
+        assertEquals(Arrays.asList("start 0", "headers 0 null",
+                "start 1", "headers 1 null", "body 1 last", "end 1",
+                "end 0", "end"), events(msg, 16));
+    }
+
+    private static List<String> events(byte[] msg, int size)
+            throws Exception {
+        List<String> events = new ArrayList<>();
+        StringBuilder body = null;
+        try (MimePullParser parser =
+                new MimePullParser(new ByteArrayInputStream(msg), size)) {
+            while (parser.hasNext()) {
+                int event = parser.next();
+                if (event != MimePullParser.BODY && body != null) {
+                    events.add("body " + parser.getDepth() + " " + body);
+                    body = null;
+                }
+                switch (event) {
+                case MimePullParser.START_PART:
+                    events.add("start " + parser.getDepth());
+                    break;
+                case MimePullParser.HEADERS:
+                    events.add("headers " + parser.getDepth() + " " +
+                            parser.getHeaders().getHeader("Subject", null));
+                    break;
+                case MimePullParser.BODY:
+                    if (body == null)
+                        body = new StringBuilder();
+                    body.append(StandardCharsets.US_ASCII.decode(
+                            parser.getBody()));
+                    break;
+                case MimePullParser.END_PART:
+                    events.add("end " + parser.getDepth());
+                    break;
+                default:
+                    events.add("end");
+                    assertFalse(parser.hasNext());
+                    break;
+                }
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.internet;
+
+import jakarta.activation.DataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test MimeUtility.
+ */
+public class MimeUtilityTest {
+
+    @Test
+    public void encodingOfAllData() {
+        assertEquals("7bit", MimeUtility.getEncoding(
+                new CountingSource("text/plain", ascii(10000))));
+        byte[] b = ascii(10000);
+        b[9999] = (byte) 0xe9;
+        assertEquals("quoted-printable", MimeUtility.getEncoding(
+                new CountingSource("text/plain", b)));
+        assertEquals("base64", MimeUtility.getEncoding(
+                new CountingSource("application/octet-stream", b)));
+        assertEquals("7bit", MimeUtility.getEncoding(
+                new CountingSource("application/octet-stream", ascii(10000))));
+    }
+
+    @Test
+    public void encodingOfSample() {
+        CountingSource ds = new CountingSource("text/plain", ascii(10000));
+        assertEquals("quoted-printable", MimeUtility.getEncoding(ds, 100));
+        assertTrue(ds.bytesRead <= 101);
+
+        ds = new CountingSource("text/plain", ascii(100));
+        assertEquals("7bit", MimeUtility.getEncoding(ds, 100));
+
+        ds = new CountingSource("text/plain; charset=utf-16", ascii(10000));
+        assertEquals("base64", MimeUtility.getEncoding(ds, 100));
+
+        ds = new CountingSource("application/octet-stream", ascii(10000));
+        assertEquals("base64", MimeUtility.getEncoding(ds, 100));
+        assertTrue(ds.bytesRead <= 101);
+
+        ds = new CountingSource("application/octet-stream", ascii(99));
+        assertEquals("7bit", MimeUtility.getEncoding(ds, 100));
+
+        ds = new CountingSource("text/plain", ascii(10000));
+        assertEquals("7bit", MimeUtility.getEncoding(ds, MimeUtility.ALL));
+        assertEquals(10000, ds.bytesRead);
+    }
+
+    @Test
+    public void encodingOfLargeSample() {
+        long[] n = new long[1];
+        for (int maxRead : new int[]{Integer.MAX_VALUE, 3000, 1000, 1}) {
+            CountingSource ds = new CountingSource("text/plain", ascii(100000));
+            ds.maxRead = maxRead;
+            assertEquals("quoted-printable",
+                    MimeUtility.getEncoding(ds, 5000, c -> n[0] = c));
+            assertEquals(5001, ds.bytesRead);
+            assertEquals(5001, n[0]);
+
+            ds = new CountingSource("application/octet-stream", ascii(100000));
+            ds.maxRead = maxRead;
+            assertEquals("base64", MimeUtility.getEncoding(ds, 5000));
+            assertTrue(ds.bytesRead <= 5001);
+
+            ds = new CountingSource("text/plain", ascii(5000));
+            ds.maxRead = maxRead;
+            assertEquals("7bit", MimeUtility.getEncoding(ds, 5000));
+            assertEquals(5000, ds.bytesRead);
+        }
+    }
+
+    @Test
+    public void encodingReportsBytesRead() {
+        long[] n = new long[1];
+        CountingSource ds = new CountingSource("text/plain", ascii(10000));
+        assertEquals("quoted-printable",
+                MimeUtility.getEncoding(ds, 100, c -> n[0] = c));
+        assertEquals(ds.bytesRead, n[0]);
+        assertEquals(101, n[0]);
+
+        ds = new CountingSource("text/plain", ascii(50));
+        assertEquals("7bit", MimeUtility.getEncoding(ds, 100, c -> n[0] = c));
+        assertEquals(50, n[0]);
+
+        ds = new CountingSource("text/plain", ascii(10000));
+        assertEquals("7bit",
+                MimeUtility.getEncoding(ds, MimeUtility.ALL, c -> n[0] = c));
+        assertEquals(10000, n[0]);
+    }
+
+    @Test
+    public void charsets() throws Exception {
+        assertSame(StandardCharsets.UTF_8,
+                MimeUtility.getCharset(MimeUtility.javaCharset("UTF-8")));
+        assertSame(StandardCharsets.UTF_8,
+                MimeUtility.getCharset(MimeUtility.javaCharset("utf-8")));
+        assertSame(StandardCharsets.ISO_8859_1,
+                MimeUtility.getCharset("ISO8859_1"));
+        assertSame(MimeUtility.getCharset("ISO8859_1"),
+                MimeUtility.getCharset("ISO8859_1"));
+        try {
+            MimeUtility.getCharset("x-no-such-charset");
+            fail("no exception");
+        } catch (UnsupportedEncodingException ex) {
+            // expected
+        }
+        try {
+            MimeUtility.getCharset("not a charset name");
+            fail("no exception");
+        } catch (UnsupportedEncodingException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void decodeWord() throws Exception {
+        assertEquals("caf\u00e9", MimeUtility.decodeWord("=?UTF-8?Q?caf=C3=A9?="));
+        assertEquals("a b", MimeUtility.decodeWord("=?us-ascii?q?a_b?="));
+        assertEquals("caf\u00e9", MimeUtility.decodeWord("=?UTF-8?B?Y2Fmw6k=?="));
+        assertEquals("caf\u00e9", MimeUtility.decodeWord("=?utf-8*en?b?Y2Fmw6k?="));
+        assertEquals("", MimeUtility.decodeWord("=?x-unknown?Q??="));
+        assertEquals("ab", MimeUtility.decodeWord("=?UTF-8?Q?a?=b"));
+        for (String bad : new String[] { "abc", "=?UTF-8", "=?UTF-8?Q",
+                "=?UTF-8?Q?abc", "=?UTF-8?Q?=C?=", "=?UTF-8?B?Y?=" }) {
+            try {
+                MimeUtility.decodeWord(bad);
+                fail("no exception: " + bad);
+            } catch (ParseException ex) {
+                // expected
+            }
+        }
+        try {
+            MimeUtility.decodeWord("=?x-unknown?Q?abc?=");
+            fail("no exception");
+        } catch (UnsupportedEncodingException ex) {
+            // expected
+        }
+        try {
+            MimeUtility.decodeWord("=?UTF-8?X?abc?=");
+            fail("no exception");
+        } catch (UnsupportedEncodingException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void decodeText() throws Exception {
+        String s = "no encoded words";
+        assertSame(s, MimeUtility.decodeText(s));
+        assertEquals("Re: caf\u00e9 au lait\r\n ",
+                MimeUtility.decodeText(
+                    "Re: =?UTF-8?Q?caf=C3=A9?= \t=?UTF-8?Q?_au?=\r\n" +
+                    " =?UTF-8?Q?_lait?=\r\n "));
+        assertEquals("x =?UTF-8?Q?=ZZ?= y",
+                MimeUtility.decodeText("x =?UTF-8?Q?=ZZ?= y"));
+        assertEquals("\u00e9 =?UTF-8?Q?=ZZ?= \u00e9",
+                MimeUtility.decodeText(
+                    "=?UTF-8?Q?=C3=A9?= =?UTF-8?Q?=ZZ?= =?UTF-8?Q?=C3=A9?="));
+        // a character split across adjacent encoded words
+        assertEquals("\u00e9", MimeUtility.decodeText(
+                "=?UTF-8?B?ww==?= =?utf-8?B?qQ==?="));
+        assertEquals("\u00e9\u00e9", MimeUtility.decodeText(
+                "=?ISO-8859-1?Q?=E9?= =?UTF-8?Q?=C3=A9?="));
+        try {
+            MimeUtility.decodeText("x =?x-unknown?Q?abc?=");
+            fail("no exception");
+        } catch (UnsupportedEncodingException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void encodeWord() throws Exception {
+        assertEquals("=?UTF-8?Q?caf=C3=A9?=",
+                MimeUtility.encodeWord("caf\u00e9", "UTF-8", "Q"));
+        assertEquals("=?UTF-8?B?Y2Fmw6k=?=",
+                MimeUtility.encodeWord("caf\u00e9", "UTF-8", "B"));
+        assertEquals("=?UTF-8?B?w6k=?=",
+                MimeUtility.encodeWord("\u00e9", "UTF-8", "B"));
+        assertEquals("=?ISO-8859-1?Q?a_=28=3F=E9?=",
+                MimeUtility.encodeWord("a (?\u00e9", "ISO-8859-1", "Q"));
+        assertEquals("=?ISO-8859-1?Q?a_(=3F=E9?=",
+                MimeUtility.encodeText("a (?\u00e9", "ISO-8859-1", "Q"));
+        // characters that can't be encoded are replaced
+        assertEquals("=?ISO-8859-1?Q?=3F=3F=E9?=",
+                MimeUtility.encodeWord("\u20ac\ud83d\ude00\u00e9",
+                        "ISO-8859-1", "Q"));
+    }
+
+    @Test
+    public void encodeLongText() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            sb.append("\u00e9t\u00e9 \ud83d\ude00 ");
+        String text = sb.toString();
+        for (String enc : new String[] { "B", "Q" }) {
+            for (String charset : new String[] { "UTF-8", "ISO-8859-1" }) {
+                String e = MimeUtility.encodeText(text, charset, enc);
+                String[] words = e.split(" ");
+                for (String w : words) {
+                    assertTrue(w, w.length() <= 75);
+                    assertTrue(w, w.startsWith("=?" + charset + "?" + enc + "?"));
+                }
+                String expected = charset.equals("UTF-8") ? text :
+                        text.replace("\ud83d\ude00", "?");
+                assertEquals(expected, MimeUtility.decodeText(e));
+            }
+        }
+    }
+
+    @Test
+    public void setPersonal() throws Exception {
+        String name = "J\u00f6rg \u00d6stlund-M\u00fcller " +
+                "und die ganze Familie aus K\u00f6ln am Rhein";
+        InternetAddress a = new InternetAddress("jorg@example.com", name,
+                "UTF-8");
+        assertEquals(name, a.getPersonal());
+        String s = a.toString();
+        assertTrue(s, s.startsWith("=?UTF-8?Q?"));
+        for (String w : s.split("\\s+")) {
+            if (w.startsWith("=?"))
+                assertTrue(w, w.length() <= 75);
+        }
+    }
+
+    private static byte[] ascii(int len) {
+        byte[] b = new byte[len];
+        Arrays.fill(b, (byte) 'x');
+        for (int i = 70; i < len; i += 72) {
+            b[i] = '\r';
+            b[i + 1] = '\n';
+        }
+        return b;
+    }
+
+    /**
+     * A DataSource that counts the bytes read from it.
+     */
+    private static final class CountingSource implements DataSource {
+        private final String type;
+        private final byte[] data;
+        int bytesRead;
+        int maxRead = Integer.MAX_VALUE;    // most bytes returned by a read
+
+        CountingSource(String type, byte[] data) {
+            this.type = type;
+            this.data = data;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(data) {
+                @Override
+                public synchronized int read() {
+                    int c = super.read();
+                    if (c >= 0)
+                        bytesRead++;
+                    return c;
+                }
+
+                @Override
+                public synchronized int read(byte[] b, int off, int len) {
+                    int n = super.read(b, off, Math.min(len, maxRead));
+                    if (n > 0)
+                        bytesRead += n;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("read only");
+        }
+
+        @Override
+        public String getContentType() {
+            return type;
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.search;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test that BodyTerm finds patterns anywhere in a large body,
+ * including across the chunks in which the body is searched.
+ */
+public class BodyTermTest {
+
+    private static final Session session = Session.getInstance(new Properties());
+
+    @Test
+    public void matchAcrossChunks() throws Exception {
+        char[] c = new char[20000];
+        Arrays.fill(c, 'x');
+        // straddles the first chunk boundary
+        "needle".getChars(0, 6, c, 8190);
+        // non-ASCII, near the end
+        "héllo wörld".getChars(0, 11, c, 19980);
+        MimeMessage msg = new TextMessage(new String(c));
+
+        assertTrue(new BodyTerm("NEEDLE").match(msg));
+        assertTrue(new BodyTerm("HÉLLO WÖRLD").match(msg));
+        assertTrue(new BodyTerm("").match(msg));
+        assertFalse(new BodyTerm("needles").match(msg));
+        assertTrue(new OrTerm(new SearchTerm[]{
+            new BodyTerm("a"), new BodyTerm("b"), new BodyTerm("eedl")
+        }).match(msg));
+    }
+
+    /**
+     * A message whose decoded content is the given text in UTF-8.
+     */
+    private static final class TextMessage extends MimeMessage {
+        private final byte[] text;
+
+        TextMessage(String text) throws MessagingException {
+            super(BodyTermTest.session);
+            this.text = text.getBytes(StandardCharsets.UTF_8);
+            setHeader("Content-Type", "text/plain; charset=utf-8");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(text);
+        }
+    }
+}
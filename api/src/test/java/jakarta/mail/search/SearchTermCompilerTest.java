@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package jakarta.mail.search;
+
+import jakarta.mail.Flags;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the evaluation order of compiled AND and OR terms and the
+ * precomputed matching of StringTerm.
+ */
+public class SearchTermCompilerTest {
+
+    private static final Session session = Session.getInstance(new Properties());
+
+    @Test
+    public void andIsFlattenedAndOrderedByCost() {
+        SearchTerm body = new BodyTerm("x");
+        SearchTerm subject = new SubjectTerm("y");
+        SearchTerm flag = new FlagTerm(new Flags(Flags.Flag.SEEN), true);
+        SearchTerm size = new SizeTerm(SizeTerm.GT, 10);
+        SearchTerm from = new FromStringTerm("z");
+        SearchTerm custom = new RecordingTerm("custom", new ArrayList<>(), true);
+        SearchTerm or = new OrTerm(size, subject);
+
+        SearchTerm[] compiled = SearchTermCompiler.compileAnd(new SearchTerm[]{
+            custom, body, new AndTerm(subject, new AndTerm(from, flag)), or
+        });
+        assertArrayEquals(new SearchTerm[]{flag, subject, or, from, body, custom},
+                compiled);
+    }
+
+    @Test
+    public void orIsFlattenedAndOrderedByCost() {
+        SearchTerm body = new BodyTerm("x");
+        SearchTerm number = new MessageNumberTerm(3);
+        SearchTerm header = new HeaderTerm("X-Foo", "bar");
+        SearchTerm and = new AndTerm(number, body);
+
+        SearchTerm[] compiled = SearchTermCompiler.compileOr(new SearchTerm[]{
+            new OrTerm(body, header), and, number
+        });
+        assertArrayEquals(new SearchTerm[]{number, header, body, and}, compiled);
+    }
+
+    @Test
+    public void matchShortCircuitsOnCheapTerms() throws MessagingException {
+        MimeMessage msg = new MimeMessage(session);
+        msg.setSubject("hello");
+        List<String> log = new ArrayList<>();
+        SearchTerm term = new AndTerm(new SearchTerm[]{
+            new RecordingTerm("custom", log, true),
+            new SubjectTerm("HELLO"),
+            new FlagTerm(new Flags(Flags.Flag.SEEN), true)
+        });
+        assertFalse(term.match(msg));
+        assertTrue(log.isEmpty());
+
+        assertTrue(new OrTerm(new RecordingTerm("custom", log, false),
+                new SubjectTerm("HELLO")).match(msg));
+        assertTrue(log.isEmpty());
+
+        log.clear();
+        assertFalse(new AndTerm(new SubjectTerm("bye"),
+                new RecordingTerm("custom", log, true)).match(msg));
+        assertTrue(log.isEmpty());
+    }
+
+    @Test
+    public void similarOrOperandsAreSearchedAtOnce() throws MessagingException {
+        SearchTerm flag = new FlagTerm(new Flags(Flags.Flag.SEEN), true);
+        SearchTerm[] terms = {
+            new SubjectTerm("alpha"), flag, new SubjectTerm("beta"),
+            new BodyTerm("x"), new SubjectTerm("gamma")
+        };
+        SearchTerm[] compiled = SearchTermCompiler.compileOr(terms);
+        assertEquals(3, compiled.length);
+        assertEquals(flag, compiled[0]);
+        assertTrue(compiled[1] instanceof StringTermGroup);
+        assertEquals(terms[3], compiled[2]);
+
+        MimeMessage msg = new MimeMessage(session);
+        msg.setSubject("The BETA release");
+        assertTrue(new OrTerm(terms).match(msg));
+        msg.setSubject("The delta release");
+        assertFalse(new OrTerm(terms).match(msg));
+    }
+
+    @Test
+    public void stringTermMatchesLikeRegionMatches() {
+        String[] texts = {"", "a", "Hello World", "STRASSE straße",
+            "İstanbul istanbul", "x𐐀y", "abcabcabd",
+            "Ǆǅǆ"};
+        String[] patterns = {"", "a", "WORLD", "world", "ß", "SS", "i",
+            "İ", "𐐨", "abd", "ǅ", "ǆ", "lo w"};
+        for (String text : texts) {
+            for (String pattern : patterns) {
+                for (boolean ignoreCase : new boolean[]{true, false}) {
+                    SubjectTerm term = new SubjectTerm(pattern);
+                    term.ignoreCase = ignoreCase;
+                    assertEquals(text + " / " + pattern + " / " + ignoreCase,
+                            naiveMatch(text, pattern, ignoreCase),
+                            term.match(text));
+                }
+            }
+        }
+    }
+
+    private static boolean naiveMatch(String s, String pattern,
+                                      boolean ignoreCase) {
+        for (int i = 0; i <= s.length() - pattern.length(); i++) {
+            if (s.regionMatches(ignoreCase, i, pattern, 0, pattern.length()))
+                return true;
+        }
+        return false;
+    }
+
+    private static final class RecordingTerm extends SearchTerm {
+        private static final long serialVersionUID = 1L;
+        private final String name;
+        private final transient List<String> log;
+        private final boolean result;
+
+        RecordingTerm(String name, List<String> log, boolean result) {
+            this.name = name;
+            this.log = log;
+            this.result = result;
+        }
+
+        @Override
+        public boolean match(Message msg) {
+            log.add(name);
+            return result;
+        }
+    }
+}
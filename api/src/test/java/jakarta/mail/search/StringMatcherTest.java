@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.search;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compare the single and multiple pattern matchers with
+ * String.regionMatches on random text.
+ */
+public class StringMatcherTest {
+
+    // includes characters whose case folding is not ASCII-only
+    private static final char[] ALPHABET = "aAbBkKKsſıIİ ".toCharArray();
+
+    @Test
+    public void singlePatternMatchesLikeRegionMatches() {
+        Random r = new Random(1);
+        for (int n = 0; n < 5000; n++) {
+            String text = random(r, r.nextInt(40));
+            String pattern = random(r, 1 + r.nextInt(4));
+            boolean ignoreCase = r.nextBoolean();
+            assertEquals(text + " / " + pattern + " / " + ignoreCase,
+                    naiveMatch(text, pattern, ignoreCase),
+                    StringMatcher.compile(pattern, ignoreCase).find(text));
+        }
+    }
+
+    @Test
+    public void multiplePatternsMatchLikeRegionMatches() {
+        Random r = new Random(2);
+        for (int n = 0; n < 5000; n++) {
+            String text = random(r, r.nextInt(40));
+            String[] patterns = new String[2 + r.nextInt(5)];
+            for (int i = 0; i < patterns.length; i++)
+                patterns[i] = random(r, 1 + r.nextInt(5));
+            boolean ignoreCase = r.nextBoolean();
+            boolean expected = false;
+            for (String p : patterns)
+                expected |= naiveMatch(text, p, ignoreCase);
+            assertEquals(text + " / " + String.join(",", patterns),
+                    expected,
+                    StringMatcher.compile(patterns, ignoreCase).find(text));
+        }
+    }
+
+    @Test
+    public void findWithinRange() {
+        StringMatcher m = StringMatcher.compile("abc", true);
+        assertEquals(true, m.find("xxABCxx", 2, 5));
+        assertEquals(false, m.find("xxABCxx", 3, 7));
+        assertEquals(false, m.find("xxABCxx", 0, 4));
+        m = StringMatcher.compile(new String[]{"abc", "zz"}, true);
+        assertEquals(true, m.find("xxABCxx", 2, 5));
+        assertEquals(false, m.find("xxABCxx", 0, 4));
+    }
+
+    private static String random(Random r, int length) {
+        char[] c = new char[length];
+        for (int i = 0; i < length; i++)
+            c[i] = ALPHABET[r.nextInt(ALPHABET.length)];
+        return new String(c);
+    }
+
+    private static boolean naiveMatch(String s, String pattern,
+                                      boolean ignoreCase) {
+        for (int i = 0; i <= s.length() - pattern.length(); i++) {
+            if (s.regionMatches(ignoreCase, i, pattern, 0, pattern.length()))
+                return true;
+        }
+        return false;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2023 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0, which is available at
@@ -18,8 +18,13 @@ package jakarta.mail.util;
 
 import org.junit.Test;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 public class FactoryFinderTest {
@@ -73,6 +78,51 @@ public class FactoryFinderTest {
         }
     }
 
+    @Test
+    public void cachedPerContextClassLoader() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        StreamProvider first = FactoryFinder.findCached(StreamProvider.class);
+        assertSame(first, FactoryFinder.findCached(StreamProvider.class));
+        assertSame(first, StreamProvider.provider());
+
+        ClassLoader other = new URLClassLoader(new URL[0], cl);
+        Thread.currentThread().setContextClassLoader(other);
+        try {
+            StreamProvider second = FactoryFinder.findCached(StreamProvider.class);
+            assertEquals(DummyStreamProvider.class, second.getClass());
+            assertNotSame(first, second);
+            assertSame(second, FactoryFinder.findCached(StreamProvider.class));
+            // the cached provider is held strongly
+            System.gc();
+            assertSame(second, FactoryFinder.findCached(StreamProvider.class));
+            StreamProvider.invalidate(other);
+            assertNotSame(second, FactoryFinder.findCached(StreamProvider.class));
+        } finally {
+            Thread.currentThread().setContextClassLoader(cl);
+        }
+        assertSame(first, FactoryFinder.findCached(StreamProvider.class));
+    }
+
+    @Test
+    public void cacheFollowsSystemProperty() {
+        String name = Class1.class.getName();
+        String old = System.getProperty(name);
+        try {
+            System.setProperty(name, Class1.class.getName());
+            Class1 impl = FactoryFinder.findCached(Class1.class);
+            assertEquals(Class1.class, impl.getClass());
+            assertSame(impl, FactoryFinder.findCached(Class1.class));
+            System.setProperty(name, Class2.class.getName());
+            assertEquals(Class2.class, FactoryFinder.findCached(Class1.class).getClass());
+        } finally {
+            if (old == null) {
+                System.clearProperty(name);
+            } else {
+                System.setProperty(name, old);
+            }
+        }
+    }
+
     public static class Class1 {
         public Class1() {}
     }
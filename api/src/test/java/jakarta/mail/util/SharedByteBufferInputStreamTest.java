@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.util;
+
+import jakarta.mail.internet.SharedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SharedByteBufferInputStreamTest {
+
+    @Test
+    public void readDirectBuffer() throws Exception {
+        byte[] data = "xxHello, World".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+        direct.position(2);
+
+        SharedByteBufferInputStream in = new SharedByteBufferInputStream(direct);
+        assertEquals(12, in.available());
+        assertEquals('H', in.read());
+        assertEquals(1, in.getPosition());
+        // the caller's buffer is not disturbed
+        assertEquals(2, direct.position());
+
+        InputStream world = in.newStream(7, -1);
+        assertEquals("World", read(world));
+        assertEquals("or", read(((SharedInputStream) world).newStream(1, 3)));
+        assertEquals("ello, World", read(in));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void skipAndReset() throws Exception {
+        SharedByteBufferInputStream in = new SharedByteBufferInputStream(
+                ByteBuffer.wrap("0123456789".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(3, in.skip(3));
+        in.mark(0);
+        assertEquals(7, in.skip(100));
+        assertEquals(0, in.skip(1));
+        in.reset();
+        assertEquals("3456789", read(in));
+    }
+
+    @Test
+    public void newStreamChecksRange() throws Exception {
+        SharedByteBufferInputStream in = new SharedByteBufferInputStream(
+                ByteBuffer.wrap("0123456789".getBytes(StandardCharsets.US_ASCII)));
+        long[][] bad = { { -1, 5 }, { 0, 11 }, { 6, 5 }, { 11, -1 },
+                { 0, Integer.MAX_VALUE + 1L },
+                { 1L << 32, (1L << 32) + 5 } };
+        for (long[] range : bad) {
+            try {
+                in.newStream(range[0], range[1]);
+                fail("no exception for " + Arrays.toString(range));
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+        assertEquals("56789", read(in.newStream(5, -1)));
+    }
+
+    private static String read(InputStream in) throws IOException {
+        byte[] b = new byte[100];
+        int n = 0, r;
+        while ((r = in.read(b, n, b.length - n)) > 0)
+            n += r;
+        return new String(b, 0, n, StandardCharsets.US_ASCII);
+    }
+}
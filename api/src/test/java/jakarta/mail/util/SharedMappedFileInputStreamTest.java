@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package jakarta.mail.util;
+
+import jakarta.mail.internet.SharedInputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SharedMappedFileInputStreamTest {
+
+    @Test
+    public void mapRegion() throws Exception {
+        File file = createFile("headerbodytrailer");
+        try {
+            SharedMappedFileInputStream in =
+                    new SharedMappedFileInputStream(file, 6, 4);
+            assertEquals(4, in.available());
+            assertEquals("body", read(in));
+            assertEquals(-1, in.read());
+            assertEquals("od", read(in.newStream(1, 3)));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void newStreamsAreIndependent() throws Exception {
+        File file = createFile("0123456789");
+        try {
+            SharedMappedFileInputStream in = new SharedMappedFileInputStream(file);
+            assertEquals('0', in.read());
+            InputStream sub = in.newStream(2, 5);
+            assertEquals(1, in.getPosition());
+            assertEquals("234", read(sub));
+            assertEquals(3, ((SharedInputStream) sub).getPosition());
+            InputStream rest = ((SharedInputStream) sub).newStream(1, -1);
+            assertEquals("34", read(rest));
+
+            in.mark(0);
+            assertEquals("123456789", read(in));
+            in.reset();
+            assertEquals(1, in.getPosition());
+            InputStream other = in.newStream(2, 5);
+            in.close();
+            try {
+                in.read();
+                fail("IOException expected");
+            } catch (IOException expected) {
+            }
+            // streams created before close still work
+            assertEquals("234", read(other));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static File createFile(String content) throws IOException {
+        File file = File.createTempFile(
+                SharedMappedFileInputStreamTest.class.getName(), ".txt");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        byte[] b = new byte[100];
+        int n = 0, r;
+        while ((r = in.read(b, n, b.length - n)) > 0)
+            n += r;
+        return new String(b, 0, n, StandardCharsets.US_ASCII);
+    }
+}